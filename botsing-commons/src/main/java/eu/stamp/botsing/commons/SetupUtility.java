@@ -1,5 +1,6 @@
 package eu.stamp.botsing.commons;
 
+import eu.stamp.botsing.commons.analysis.classpath.InheritanceTreeCache;
 import org.apache.commons.cli.*;
 import org.evosuite.Properties;
 import org.evosuite.classpath.ClassPathHacker;
@@ -14,6 +15,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 
@@ -103,12 +105,20 @@ public class SetupUtility {
         String cp = ClassPathHandler.getInstance().getTargetProjectClasspath();
         List<String> cpList = Arrays.asList(cp.split(File.pathSeparator));
         Properties.TARGET_CLASS=className;
+        // Read the inheritance tree of an unchanged class path from its snapshot
+        String inheritanceFile = Properties.INHERITANCE_FILE;
+        Path snapshot = InheritanceTreeCache.getInstance().getSnapshot(cpList);
+        if (snapshot != null) {
+            Properties.INHERITANCE_FILE = snapshot.toString();
+        }
         try {
             LOG.info("Starting the dependency analysis. The number of detected jar files is {}.",cpList.size());
             DependencyAnalysis.analyzeClass(className,Arrays.asList(cp.split(File.pathSeparator)));
             LOG.info("Analysing dependencies done!");
         } catch (ClassNotFoundException e) {
             e.printStackTrace();
+        } finally {
+            Properties.INHERITANCE_FILE = inheritanceFile;
         }
     }
 }
@@ -20,7 +20,7 @@ public class CPAnalyzer {
 
     private static void initInheritanceTree(List<String> classPath) {
         LOG.info("Calculate inheritance hierarchy"+classPath.toString());
-        inheritanceTree = InheritanceTreeGenerator.createFromClassPath(classPath);
+        inheritanceTree = InheritanceTreeCache.getInstance().getInheritanceTree(classPath);
         InheritanceTreeGenerator.gatherStatistics(inheritanceTree);
     }
 
@@ -0,0 +1,170 @@
+package eu.stamp.botsing.commons.analysis.classpath;
+
+import org.evosuite.Properties;
+import org.evosuite.setup.InheritanceTree;
+import org.evosuite.setup.InheritanceTreeGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Snapshots of the inheritance tree of a class path in a local directory. Building the tree reads every class of the
+ * class path, so a run on a class path that has not changed since a previous run reads the snapshot of that run
+ * instead. A snapshot is keyed by the hash of the class path entries (their path, size and last modification, or
+ * those of their class files for a directory) and of the version of EvoSuite.
+ */
+public class InheritanceTreeCache {
+    private static final Logger LOG = LoggerFactory.getLogger(InheritanceTreeCache.class);
+
+    private static final String SNAPSHOT_SUFFIX = ".xml.gz";
+
+    private static InheritanceTreeCache instance = null;
+
+    private Path directory = null;
+
+    InheritanceTreeCache() {
+    }
+
+    public static synchronized InheritanceTreeCache getInstance() {
+        if (instance == null) {
+            instance = new InheritanceTreeCache();
+        }
+        return instance;
+    }
+
+    public synchronized void configure(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            this.directory = directory;
+        } catch (IOException e) {
+            LOG.warn("Inheritance tree cache directory {} cannot be created, the cache is disabled: {}", directory, e.getMessage());
+            this.directory = null;
+        }
+    }
+
+    public synchronized boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Returns the snapshot of the inheritance tree of the class path, which is built and stored first if there is none.
+     * @return null if the cache is disabled or the snapshot cannot be written.
+     */
+    public synchronized Path getSnapshot(List<String> classPath) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Path snapshot = directory.resolve(key(classPath) + SNAPSHOT_SUFFIX);
+        if (Files.exists(snapshot)) {
+            LOG.info("Reusing the inheritance tree snapshot {}", snapshot);
+            return snapshot;
+        }
+
+        InheritanceTree inheritanceTree = build(classPath);
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(directory, "snapshot", ".tmp");
+            InheritanceTreeGenerator.writeInheritanceTree(inheritanceTree, temporary.toFile());
+            try {
+                Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+            LOG.info("Inheritance tree snapshot {} stored", snapshot);
+            return snapshot;
+        } catch (IOException e) {
+            LOG.warn("Inheritance tree snapshot {} cannot be written: {}", snapshot, e.getMessage());
+            if (temporary != null) {
+                temporary.toFile().delete();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Returns the inheritance tree of the class path, from its snapshot when the cache is enabled.
+     */
+    public InheritanceTree getInheritanceTree(List<String> classPath) {
+        Path snapshot = getSnapshot(classPath);
+        if (snapshot != null) {
+            try {
+                return InheritanceTreeGenerator.readInheritanceTree(snapshot.toString());
+            } catch (IOException e) {
+                LOG.warn("Inheritance tree snapshot {} cannot be read: {}", snapshot, e.getMessage());
+            }
+        }
+        return build(classPath);
+    }
+
+    // The generator reads the inheritance file instead of the class path when one is set
+    private static InheritanceTree build(List<String> classPath) {
+        String inheritanceFile = Properties.INHERITANCE_FILE;
+        Properties.INHERITANCE_FILE = "";
+        try {
+            return InheritanceTreeGenerator.createFromClassPath(classPath);
+        } finally {
+            Properties.INHERITANCE_FILE = inheritanceFile;
+        }
+    }
+
+    /**
+     * @return the hash of the class path entries (their path, size and last modification, or those of their class
+     * files for a directory) and of the version of EvoSuite.
+     */
+    public static String key(List<String> classPath) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, String.valueOf(InheritanceTree.class.getPackage() == null ? null : InheritanceTree.class.getPackage().getImplementationVersion()));
+        for (String entry : classPath) {
+            File file = new File(entry);
+            update(digest, file.getAbsolutePath());
+            if (file.isDirectory()) {
+                for (File classFile : classFiles(file)) {
+                    update(digest, classFile.getPath() + ":" + classFile.length() + ":" + classFile.lastModified());
+                }
+            } else {
+                update(digest, file.length() + ":" + file.lastModified());
+            }
+        }
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    // Class files of the directory, in a stable order
+    private static List<File> classFiles(File directory) {
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            return paths.filter(path -> path.toString().endsWith(".class"))
+                    .sorted()
+                    .map(Path::toFile)
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            LOG.debug("Class path directory {} cannot be listed: {}", directory, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+}
@@ -1,11 +1,9 @@
 package eu.stamp.botsing.commons.coverage.branch;
 
-import eu.stamp.botsing.commons.BotsingTestGenerationContext;
 import org.evosuite.coverage.ControlFlowDistance;
 import org.evosuite.coverage.TestCoverageGoal;
 import org.evosuite.coverage.branch.Branch;
 import org.evosuite.coverage.branch.ControlFlowDistanceCalculator;
-import org.evosuite.graphs.GraphPool;
 import org.evosuite.graphs.cfg.BytecodeInstruction;
 import org.evosuite.graphs.cfg.ControlDependency;
 import org.evosuite.testcase.execution.ExecutionResult;
@@ -63,7 +61,7 @@ public class InterProceduralControlFlowDistanceCalculator extends ControlFlowDis
 
         ControlFlowDistance r = new ControlFlowDistance();
 //        if(isIntegration){
-            r.setApproachLevel(GraphPool.getInstance(BotsingTestGenerationContext.getInstance().getClassLoaderForSUT()).getActualCFG("IntegrationTestingGraph","methodsIntegration").getDiameter() + 1);
+            r.setApproachLevel(InterProceduralDistanceContext.getInstance().getDiameter() + 1);
 //        }else{
 //            r.setApproachLevel(branch.getInstruction().getActualCFG().getDiameter() + 1);
 //        }
@@ -106,7 +104,7 @@ public class InterProceduralControlFlowDistanceCalculator extends ControlFlowDis
         List<Double> falseDistances = call.falseDistanceTrace;
 
 
-        Set<Integer> branchTracePositions = determineBranchTracePositions(call, branch);
+        Set<Integer> branchTracePositions = InterProceduralDistanceContext.getBranchTracePositions(call, branch);
 
         if (!branchTracePositions.isEmpty()) {
 
@@ -0,0 +1,103 @@
+package eu.stamp.botsing.commons.coverage.branch;
+
+import eu.stamp.botsing.commons.BotsingTestGenerationContext;
+import org.evosuite.coverage.branch.Branch;
+import org.evosuite.graphs.GraphPool;
+import org.evosuite.graphs.cfg.ActualControlFlowGraph;
+import org.evosuite.testcase.execution.MethodCall;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Data that {@link InterProceduralControlFlowDistanceCalculator} needs at every distance calculation, computed once.
+ * The diameter of the inter-procedural control flow graph is cached per graph instance, since the graph does not
+ * change once it is built, and the positions of the branches in the branch trace of a method call are indexed the
+ * first time a branch of the call is looked up. Both are safe to use from several threads.
+ */
+public class InterProceduralDistanceContext {
+
+    private static final String GRAPH_CLASS = "IntegrationTestingGraph";
+    private static final String GRAPH_METHOD = "methodsIntegration";
+
+    private static volatile InterProceduralDistanceContext instance = null;
+
+    // Branch trace of a call -> branch id -> positions of the branch in the trace
+    private static final Map<MethodCall, BranchTracePositions> branchTracePositions = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final ActualControlFlowGraph graph;
+    private final int diameter;
+
+    private InterProceduralDistanceContext(ActualControlFlowGraph graph) {
+        this.graph = graph;
+        this.diameter = graph.getDiameter();
+    }
+
+    /**
+     * Returns the context of the current inter-procedural graph, which is created again when the graph is replaced
+     * in the pool.
+     */
+    public static InterProceduralDistanceContext getInstance() {
+        ActualControlFlowGraph graph = GraphPool.getInstance(BotsingTestGenerationContext.getInstance().getClassLoaderForSUT())
+                .getActualCFG(GRAPH_CLASS, GRAPH_METHOD);
+        InterProceduralDistanceContext context = instance;
+        if (context == null || context.graph != graph) {
+            synchronized (InterProceduralDistanceContext.class) {
+                context = instance;
+                if (context == null || context.graph != graph) {
+                    context = new InterProceduralDistanceContext(graph);
+                    instance = context;
+                }
+            }
+        }
+        return context;
+    }
+
+    public int getDiameter() {
+        return diameter;
+    }
+
+    /**
+     * Positions of the given branch in the branch trace of the call.
+     */
+    public static Set<Integer> getBranchTracePositions(MethodCall call, Branch branch) {
+        BranchTracePositions positions;
+        synchronized (branchTracePositions) {
+            positions = branchTracePositions.get(call);
+            if (positions == null || !positions.isIndexOf(call.branchTrace)) {
+                positions = new BranchTracePositions(call.branchTrace);
+                branchTracePositions.put(call, positions);
+            }
+        }
+        return positions.get(branch.getActualBranchId());
+    }
+
+    private static class BranchTracePositions {
+        private final List<Integer> branchTrace;
+        private final int size;
+        private final Map<Integer, Set<Integer>> positions = new HashMap<>();
+
+        BranchTracePositions(List<Integer> branchTrace) {
+            this.branchTrace = branchTrace;
+            this.size = branchTrace.size();
+            for (int position = 0; position < branchTrace.size(); position++) {
+                positions.computeIfAbsent(branchTrace.get(position), branch -> new HashSet<>()).add(position);
+            }
+        }
+
+        // The trace of a call may be replaced, or grow while the test is executed
+        boolean isIndexOf(List<Integer> trace) {
+            return trace == branchTrace && trace.size() == size;
+        }
+
+        Set<Integer> get(int branchId) {
+            Set<Integer> branchPositions = positions.get(branchId);
+            return branchPositions == null ? Collections.<Integer>emptySet() : Collections.unmodifiableSet(branchPositions);
+        }
+    }
+}
@@ -48,9 +48,19 @@ public class BotsingBytecodeInstrumentation {
 
         cv = new RemoveFinalClassAdapter(cv);
 
-        cv = new ExecutionPathClassAdapter(cv, className);
-
-        cv = new CFGClassAdapter(classLoader, cv, className);
+        // Trace the execution of the classes and methods of the profile (the CFG adapter adds the branch tracing),
+        // and only the calls of the other methods
+        InstrumentationProfile profile = InstrumentationProfile.getInstance();
+        if (profile.isTracedClass(className)) {
+            ClassVisitor untraced = new MethodEntryClassAdapter(cv, className);
+            cv = new ExecutionPathClassAdapter(cv, className);
+            cv = new CFGClassAdapter(classLoader, cv, className);
+            if (profile.isSelective()) {
+                cv = new TracedMethodsClassAdapter(cv, untraced, className, profile);
+            }
+        } else {
+            cv = new MethodEntryClassAdapter(cv, className);
+        }
 
         // Collect constant values for the value pool
         cv = new PrimitiveClassAdapter(cv, className);
@@ -0,0 +1,415 @@
+package eu.stamp.botsing.commons.instrumentation;
+
+import eu.stamp.botsing.commons.analysis.classpath.InheritanceTreeCache;
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.instrumentation.RemoveFinalClassAdapter;
+import org.evosuite.seeding.PrimitiveClassAdapter;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Content-addressed cache of instrumented classes on the local disk, shared by the runs of Botsing on the same class
+ * path. An entry is keyed by the hash of the original bytecode, the instrumentation settings, the versions of
+ * Botsing and EvoSuite, and the class path of the project: the stack map frames of the instrumented bytecode depend on
+ * the hierarchy of the classes it uses, which is read from the class path. The cache keeps the least recently used entries under a size limit.
+ * Only the classes that are not traced by the {@link InstrumentationProfile} are cached: the instrumentation of the
+ * traced classes registers their control flow graphs and puts global branch ids in their bytecode, which are only
+ * valid in the run that instrumented them. For the other classes, the side effects of the instrumentation are
+ * replayed when an entry is used: the constants of the class are added to the constant pool, the class is
+ * registered as final if it was, and its loop counters get new indices. The purity analysis of the inspectors cannot
+ * be replayed this way, so nothing is cached while {@code pure_inspectors} is enabled.
+ */
+public class BytecodeCache {
+    private static final Logger LOG = LoggerFactory.getLogger(BytecodeCache.class);
+
+    private static final int MAGIC = 0xB075C0DE;
+    private static final String ENTRY_SUFFIX = ".class";
+    private static final String LOOP_COUNTER = Type.getInternalName(LoopCounter.class);
+
+    private static BytecodeCache instance = null;
+
+    private Path directory = null;
+    private long maxSize = 0;
+    private long size = 0;
+    private String settings = null;
+    private String settingsClassPath = null;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    BytecodeCache() {
+    }
+
+    public static synchronized BytecodeCache getInstance() {
+        if (instance == null) {
+            instance = new BytecodeCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Enables the cache in the given directory, which is cleaned up to the given size.
+     */
+    public synchronized void configure(Path directory, long maxSize) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            LOG.warn("Bytecode cache directory {} cannot be created, the cache is disabled: {}", directory, e.getMessage());
+            this.directory = null;
+            return;
+        }
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.settings = null;
+        cleanUp();
+    }
+
+    public synchronized boolean isEnabled() {
+        return directory != null;
+    }
+
+    public boolean isCacheable(String className) {
+        InstrumentationProfile profile = InstrumentationProfile.getInstance();
+        return isEnabled() && profile.isSelective() && !profile.isTracedClass(className) && !Properties.PURE_INSPECTORS;
+    }
+
+    /**
+     * Returns the instrumented bytecode of the class from the cache, or from the given instrumentation if it is not
+     * cached yet (then it is stored).
+     * @param className name of the class, with slashes.
+     */
+    public byte[] getTransformedBytes(String className, byte[] original, Function<byte[], byte[]> instrumentation) {
+        if (!isCacheable(className)) {
+            return instrumentation.apply(original);
+        }
+        String key = key(original);
+        Path entry = directory.resolve(key + ENTRY_SUFFIX);
+        byte[] cached = load(className, original, entry);
+        if (cached != null) {
+            return cached;
+        }
+
+        String name = className.replace('/', '.');
+        boolean wasFinal = RemoveFinalClassAdapter.finalClasses.contains(name);
+        byte[] transformed = instrumentation.apply(original);
+        if (transformed.length > 0) {
+            store(entry, new Entry(!wasFinal && RemoveFinalClassAdapter.finalClasses.contains(name), loopIndices(transformed), transformed));
+        }
+        synchronized (this) {
+            misses++;
+        }
+        return transformed;
+    }
+
+    private byte[] load(String className, byte[] original, Path entry) {
+        Entry cached;
+        try {
+            if (!Files.exists(entry)) {
+                return null;
+            }
+            cached = Entry.read(Files.readAllBytes(entry));
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            LOG.debug("Bytecode cache entry {} cannot be read: {}", entry, e.getMessage());
+            return null;
+        }
+
+        // Replay the side effects of the instrumentation
+        new ClassReader(original).accept(new PrimitiveClassAdapter(new ClassVisitor(Opcodes.ASM5) {}, className), ClassReader.SKIP_FRAMES);
+        if (cached.finalClass) {
+            RemoveFinalClassAdapter.finalClasses.add(className.replace('/', '.'));
+        }
+        byte[] bytecode = cached.bytecode;
+        if (cached.loopIndices.length > 0) {
+            Map<Integer, Integer> newIndices = new LinkedHashMap<>();
+            for (int index : cached.loopIndices) {
+                newIndices.put(index, LoopCounter.getInstance().getNewIndex());
+            }
+            bytecode = remapLoopIndices(bytecode, newIndices);
+        }
+        synchronized (this) {
+            hits++;
+        }
+        return bytecode;
+    }
+
+    private void store(Path entry, Entry cached) {
+        Path temporary = null;
+        try {
+            byte[] content = cached.write();
+            temporary = Files.createTempFile(entry.getParent(), "entry", ".tmp");
+            Files.write(temporary, content);
+            try {
+                Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+            synchronized (this) {
+                size += content.length;
+                if (size > maxSize) {
+                    cleanUp();
+                }
+            }
+        } catch (IOException e) {
+            LOG.debug("Bytecode cache entry {} cannot be written: {}", entry, e.getMessage());
+            if (temporary != null) {
+                temporary.toFile().delete();
+            }
+        }
+    }
+
+    // Deletes the least recently used entries until the cache is under its size
+    private synchronized void cleanUp() {
+        List<File> entries = new ArrayList<>();
+        size = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + ENTRY_SUFFIX)) {
+            for (Path path : stream) {
+                entries.add(path.toFile());
+                size += path.toFile().length();
+            }
+        } catch (IOException e) {
+            LOG.debug("Bytecode cache directory {} cannot be listed: {}", directory, e.getMessage());
+            return;
+        }
+        if (size <= maxSize) {
+            return;
+        }
+        entries.sort(Comparator.comparingLong(File::lastModified));
+        for (File file : entries) {
+            if (size <= maxSize * 9 / 10) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                size -= length;
+                evictions++;
+            }
+        }
+    }
+
+    private String key(byte[] original) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(getSettings().getBytes(StandardCharsets.UTF_8));
+        byte[] hash = digest.digest(original);
+        StringBuilder key = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    // Everything, apart from the original bytecode, that changes the instrumentation of an untraced class
+    private synchronized String getSettings() {
+        String classPath = ClassPathHandler.getInstance().getTargetProjectClasspath();
+        if (settings == null || !classPath.equals(settingsClassPath)) {
+            settingsClassPath = classPath;
+            settings = version(BytecodeCache.class) + ";" + version(Properties.class)
+                    + ";classpath=" + InheritanceTreeCache.key(getClassPathEntries(classPath))
+                    + ";reset=" + Properties.RESET_STATIC_FIELDS + "," + Properties.RESET_STATIC_FINAL_FIELDS + "," + RuntimeSettings.resetStaticState
+                    + ";loops=" + (Properties.MAX_LOOP_ITERATIONS >= 0)
+                    + ";mocks=" + RuntimeSettings.mockJVMNonDeterminism + "," + RuntimeSettings.mockSystemIn + "," + RuntimeSettings.mockGUI
+                    + "," + RuntimeSettings.useVFS + "," + RuntimeSettings.useVNET + "," + RuntimeSettings.useJEE
+                    + ";uid=" + RuntimeSettings.applyUIDTransformation;
+        }
+        return settings;
+    }
+
+    private static List<String> getClassPathEntries(String classPath) {
+        List<String> entries = new ArrayList<>();
+        for (String entry : classPath.split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    // Version of the jar of the class, or the last modification of its class directory in a development build
+    private static String version(Class<?> clazz) {
+        String version = clazz.getPackage() == null ? null : clazz.getPackage().getImplementationVersion();
+        if (version != null) {
+            return version;
+        }
+        try {
+            return "dev-" + new File(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).lastModified();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+
+    // Loop counter indices in the bytecode, in the order they appear
+    static int[] loopIndices(byte[] bytecode) {
+        List<Integer> indices = new ArrayList<>();
+        new ClassReader(bytecode).accept(new LoopIndexVisitor(null, index -> {
+            if (!indices.contains(index)) {
+                indices.add(index);
+            }
+            return index;
+        }), ClassReader.SKIP_FRAMES);
+        return indices.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    static byte[] remapLoopIndices(byte[] bytecode, Map<Integer, Integer> newIndices) {
+        boolean identity = true;
+        for (Map.Entry<Integer, Integer> index : newIndices.entrySet()) {
+            identity &= index.getKey().equals(index.getValue());
+        }
+        if (identity) {
+            return bytecode;
+        }
+        ClassReader reader = new ClassReader(bytecode);
+        ClassWriter writer = new ClassWriter(reader, 0);
+        reader.accept(new LoopIndexVisitor(writer, index -> newIndices.getOrDefault(index, index)), 0);
+        return writer.toByteArray();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized void logStatistics() {
+        if (isEnabled()) {
+            LOG.info("Bytecode cache: {} hits, {} misses, {} evictions", hits, misses, evictions);
+        }
+    }
+
+    /**
+     * Finds (and replaces) the index that the instrumentation gives to each loop, in the calls
+     * {@code LoopCounter.getInstance().checkLoop(index)}.
+     */
+    private static class LoopIndexVisitor extends ClassVisitor {
+        private final Function<Integer, Integer> indices;
+
+        LoopIndexVisitor(ClassVisitor next, Function<Integer, Integer> indices) {
+            super(Opcodes.ASM5, next);
+            this.indices = indices;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            return new MethodVisitor(Opcodes.ASM5, super.visitMethod(access, name, descriptor, signature, exceptions)) {
+                private boolean afterGetInstance = false;
+
+                @Override
+                public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+                    afterGetInstance = opcode == Opcodes.INVOKESTATIC && LOOP_COUNTER.equals(owner) && "getInstance".equals(name);
+                    super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+                }
+
+                @Override
+                public void visitLdcInsn(Object value) {
+                    if (afterGetInstance && value instanceof Integer) {
+                        value = indices.apply((Integer) value);
+                    }
+                    afterGetInstance = false;
+                    super.visitLdcInsn(value);
+                }
+
+                @Override
+                public void visitInsn(int opcode) {
+                    afterGetInstance = false;
+                    super.visitInsn(opcode);
+                }
+
+                @Override
+                public void visitVarInsn(int opcode, int var) {
+                    afterGetInstance = false;
+                    super.visitVarInsn(opcode, var);
+                }
+
+                @Override
+                public void visitIntInsn(int opcode, int operand) {
+                    afterGetInstance = false;
+                    super.visitIntInsn(opcode, operand);
+                }
+            };
+        }
+    }
+
+    private static class Entry {
+        private final boolean finalClass;
+        private final int[] loopIndices;
+        private final byte[] bytecode;
+
+        Entry(boolean finalClass, int[] loopIndices, byte[] bytecode) {
+            this.finalClass = finalClass;
+            this.loopIndices = loopIndices;
+            this.bytecode = bytecode;
+        }
+
+        byte[] write() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(bytecode.length + 64);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(MAGIC);
+                out.writeBoolean(finalClass);
+                out.writeInt(loopIndices.length);
+                for (int index : loopIndices) {
+                    out.writeInt(index);
+                }
+                out.writeInt(bytecode.length);
+                out.write(bytecode);
+            }
+            return bytes.toByteArray();
+        }
+
+        static Entry read(byte[] content) throws IOException {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(content))) {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("not a bytecode cache entry");
+                }
+                boolean finalClass = in.readBoolean();
+                int[] loopIndices = new int[in.readInt()];
+                for (int index = 0; index < loopIndices.length; index++) {
+                    loopIndices[index] = in.readInt();
+                }
+                byte[] bytecode = new byte[in.readInt()];
+                in.readFully(bytecode);
+                return new Entry(finalClass, loopIndices, bytecode);
+            }
+        }
+    }
+}
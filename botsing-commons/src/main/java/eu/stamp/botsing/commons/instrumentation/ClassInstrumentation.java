@@ -21,6 +21,24 @@ import java.util.stream.Collectors;
 
 public class ClassInstrumentation {
     private static final Logger LOG = LoggerFactory.getLogger(ClassInstrumentation.class);
+
+    // Maximum number of classes initialized by the same test execution
+    private final int batchSize;
+
+    public ClassInstrumentation(){
+        this(1);
+    }
+
+    public ClassInstrumentation(int batchSize){
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size should be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Instruments and loads the given classes. The classes are returned in the order they are given, without duplicates.
+     */
     public List<Class> instrumentClasses(List<String> interestingClasses, String testingClassName){
         List<Class> instrumentedClasses = new ArrayList<>();
         List<String> instrumentedClassesName = new ArrayList<>();
@@ -43,6 +61,8 @@ public class ClassInstrumentation {
         }
 
 
+        // Classes waiting for their test execution
+        List<String> batch = new ArrayList<>();
         for(String clazz: nonDuplicatedClasses ){
             if(instrumentedClassesName.contains(clazz)){
                 continue;
@@ -53,7 +73,11 @@ public class ClassInstrumentation {
                 Properties.TARGET_CLASS=clazz;
                 cls = Class.forName(clazz,true, BotsingTestGenerationContext.getInstance().getClassLoaderForSUT());
                 if(clazz != testingClassName){
-                    instrumentClassByTestExecution(clazz);
+                    batch.add(clazz);
+                    if (batch.size() >= batchSize) {
+                        instrumentClassesByTestExecution(batch);
+                        batch.clear();
+                    }
                 }
                 instrumentedClasses.add(cls);
                 instrumentedClassesName.add(clazz);
@@ -61,13 +85,23 @@ public class ClassInstrumentation {
                 LOG.warn("Error in loading {}",clazz);
             }
         }
+        if (!batch.isEmpty()) {
+            instrumentClassesByTestExecution(batch);
+        }
 
         return instrumentedClasses;
     }
 
 
     public static void instrumentClassByTestExecution(String targetClass){
-        DefaultTestCase test = generateTestForLoadingClass(targetClass);
+        instrumentClassesByTestExecution(Collections.singletonList(targetClass));
+    }
+
+    /**
+     * Loads and initializes the given classes in a single test execution.
+     */
+    public static void instrumentClassesByTestExecution(List<String> targetClasses){
+        DefaultTestCase test = generateTestForLoadingClasses(targetClasses);
         // execute the test contains the target class
         ExecutionResult execResult = TestCaseExecutor.getInstance().execute(test, Integer.MAX_VALUE);
 
@@ -107,11 +141,9 @@ public class ClassInstrumentation {
 
 
 
-    private static DefaultTestCase generateTestForLoadingClass(String targetClass) {
+    private static DefaultTestCase generateTestForLoadingClasses(List<String> targetClasses) {
 
         DefaultTestCase test = new DefaultTestCase();
-        StringPrimitiveStatement firstStatement = new StringPrimitiveStatement(test, targetClass);
-        VariableReference string0 = test.addStatement(firstStatement);
 
         try{
 
@@ -127,20 +159,25 @@ public class ClassInstrumentation {
                     currentThreadVar, Collections.emptyList());
             VariableReference contextClassLoaderVar = test.addStatement(getContextClassLoaderStmt);
 
-            Method loadClassMethod = ClassLoader.class.getMethod("loadClass", String.class);
-            Statement loadClassStmt = new MethodStatement(test,
-                    new GenericMethod(loadClassMethod, loadClassMethod.getDeclaringClass()), contextClassLoaderVar,
-                    Collections.singletonList(string0));
-            test.addStatement(loadClassStmt);
-
             BooleanPrimitiveStatement stmt1 = new BooleanPrimitiveStatement(test, true);
             VariableReference boolean0 = test.addStatement(stmt1);
 
+            Method loadClassMethod = ClassLoader.class.getMethod("loadClass", String.class);
             Method forNameMethod = Class.class.getMethod("forName",String.class, boolean.class, ClassLoader.class);
-            Statement forNameStmt = new MethodStatement(test,
-                    new GenericMethod(forNameMethod, forNameMethod.getDeclaringClass()), null,
-                    Arrays.asList(string0, boolean0, contextClassLoaderVar));
-            test.addStatement(forNameStmt);
+            for (String targetClass : targetClasses) {
+                StringPrimitiveStatement classNameStmt = new StringPrimitiveStatement(test, targetClass);
+                VariableReference string0 = test.addStatement(classNameStmt);
+
+                Statement loadClassStmt = new MethodStatement(test,
+                        new GenericMethod(loadClassMethod, loadClassMethod.getDeclaringClass()), contextClassLoaderVar,
+                        Collections.singletonList(string0));
+                test.addStatement(loadClassStmt);
+
+                Statement forNameStmt = new MethodStatement(test,
+                        new GenericMethod(forNameMethod, forNameMethod.getDeclaringClass()), null,
+                        Arrays.asList(string0, boolean0, contextClassLoaderVar));
+                test.addStatement(forNameStmt);
+            }
         }catch(Exception e){
             LOG.error("! Error in loading the target class:");
             e.printStackTrace();
@@ -0,0 +1,76 @@
+package eu.stamp.botsing.commons.instrumentation;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Classes and methods whose execution is traced by {@link BotsingBytecodeInstrumentation}. By default, all of them
+ * are traced. Once the frames of a crash are given, only the methods of the frames are traced (branches, lines,
+ * method calls and thrown exceptions), since the crash coverage only looks at the lines of the frames, at their
+ * control dependencies (which are in the same method), and at the calls between the frames. The other methods keep
+ * the instrumentation that the test execution needs (static reset, replaced environment calls, loop counters) and
+ * the tracing of their entry and exit ({@link MethodEntryClassAdapter}), so that the depth of the calls is the same
+ * as with the full instrumentation, but their lines and branches are not traced, and no control flow graph is built
+ * for them.
+ */
+public class InstrumentationProfile {
+
+    private static InstrumentationProfile instance;
+
+    // class name -> traced methods, without their descriptor
+    private final Map<String, Set<String>> tracedMethods = new HashMap<>();
+    private boolean selective = false;
+
+    private InstrumentationProfile(){}
+
+    public static synchronized InstrumentationProfile getInstance(){
+        if(instance == null){
+            instance = new InstrumentationProfile();
+        }
+        return instance;
+    }
+
+    /**
+     * Restricts the tracing to the methods of the given frames. Classes loaded before are not instrumented again.
+     */
+    public synchronized void traceFrames(List<StackTraceElement> frames){
+        selective = true;
+        for(StackTraceElement frame : frames){
+            tracedMethods.computeIfAbsent(frame.getClassName(), className -> new HashSet<>()).add(frame.getMethodName());
+        }
+    }
+
+    public synchronized void reset(){
+        selective = false;
+        tracedMethods.clear();
+    }
+
+    public synchronized boolean isSelective(){
+        return selective;
+    }
+
+    /**
+     * @param className name of the class, with either dots or slashes.
+     */
+    public synchronized boolean isTracedClass(String className){
+        return !selective || tracedMethods.containsKey(className.replace('/', '.'));
+    }
+
+    /**
+     * @param methodName name of the method, with or without its descriptor.
+     */
+    public synchronized boolean isTracedMethod(String className, String methodName){
+        if(!selective){
+            return true;
+        }
+        Set<String> methods = tracedMethods.get(className.replace('/', '.'));
+        if(methods == null){
+            return false;
+        }
+        int descriptor = methodName.indexOf('(');
+        return methods.contains(descriptor < 0 ? methodName : methodName.substring(0, descriptor));
+    }
+}
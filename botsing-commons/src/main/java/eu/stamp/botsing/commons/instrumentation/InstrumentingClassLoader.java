@@ -9,14 +9,36 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the classes of the SUT with the Botsing instrumentation. The loader is parallel capable: the classes that are
+ * already loaded are looked up without locking, and each class is defined under its own lock, so the test executions
+ * of several threads only wait for the classes they load themselves. The instrumentation registers the classes in the
+ * global pools of EvoSuite (control flow graphs, branches, loop counters), so the transformations themselves still
+ * run one at a time.
+ */
 public class InstrumentingClassLoader extends ClassLoader {
     private static final Logger LOG = LoggerFactory.getLogger(InstrumentingClassLoader.class);
-    private final Map<String, Class<?>> visitedClasses = new HashMap<>();
+
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
+    // Guards the global state that the instrumentation updates, including the resource lookup of the class path
+    private static final Object INSTRUMENTATION_LOCK = new Object();
+
+    private final Map<String, Class<?>> visitedClasses = new ConcurrentHashMap<>();
+
+    private final AtomicLong instrumentedClasses = new AtomicLong();
+    private final AtomicLong delegatedClasses = new AtomicLong();
+    private final AtomicLong visitedClassHits = new AtomicLong();
+    private final AtomicLong instrumentationTime = new AtomicLong();
 
     private final BotsingBytecodeInstrumentation instrumentation;
 
@@ -36,20 +58,23 @@ public class InstrumentingClassLoader extends ClassLoader {
 //        if(!Properties.TARGET_CLASS.equals(name)){
 //            Properties.TARGET_CLASS = name;
 //        }
+        Class<?> result = visitedClasses.get(name);
+        if (result != null) {
+            visitedClassHits.incrementAndGet();
+            return result;
+        }
         if (!RuntimeInstrumentation.checkIfCanInstrument(name)){
-            Class<?> result = visitedClasses.get(name);
+            delegatedClasses.incrementAndGet();
+            return classLoader.loadClass(name);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            // Another thread may have defined the class while this one was waiting
+            result = visitedClasses.get(name);
             if (result != null) {
+                visitedClassHits.incrementAndGet();
                 return result;
             }
-            result = classLoader.loadClass(name);
-            return result;
-        }
-        Class<?> result = visitedClasses.get(name);
-        if (result != null) {
-            return result;
-        } else {
-            Class<?> instrumentedClass = instrumentClass(name);
-            return instrumentedClass;
+            return instrumentClass(name);
         }
     }
 
@@ -57,15 +82,21 @@ public class InstrumentingClassLoader extends ClassLoader {
         String className = fullyQualifiedTargetClass.replace('.', '/');
         InputStream is = null;
         try {
-            is = ResourceList.getInstance(BotsingTestGenerationContext.getInstance().getClassLoaderForSUT()).getClassAsStream(fullyQualifiedTargetClass);
-            if (is == null) {
-                LOG.warn("Class '" + className + ".class" + "' should be in target project!");
+            byte[] byteBuffer;
+            long start = System.nanoTime();
+            synchronized (INSTRUMENTATION_LOCK) {
+                is = ResourceList.getInstance(BotsingTestGenerationContext.getInstance().getClassLoaderForSUT()).getClassAsStream(fullyQualifiedTargetClass);
+                if (is == null) {
+                    LOG.warn("Class '" + className + ".class" + "' should be in target project!");
+                }
+                byteBuffer = getTransformedBytes(className,is);
             }
-            byte[] byteBuffer = getTransformedBytes(className,is);
+            instrumentationTime.addAndGet(System.nanoTime() - start);
             createPackageDefinition(fullyQualifiedTargetClass);
             try{
                 Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0,byteBuffer.length);
                 visitedClasses.put(fullyQualifiedTargetClass, result);
+                instrumentedClasses.incrementAndGet();
                 LOG.debug("Loaded class: " + fullyQualifiedTargetClass);
                 return result;
             }catch(ClassFormatError cfe){
@@ -93,7 +124,13 @@ public class InstrumentingClassLoader extends ClassLoader {
 
 
     protected byte[] getTransformedBytes(String className, InputStream is) throws IOException {
-        return instrumentation.transformBytes(this, className, new ClassReader(is));
+        BytecodeCache cache = BytecodeCache.getInstance();
+        if (is == null || !cache.isCacheable(className)) {
+            return instrumentation.transformBytes(this, className, new ClassReader(is));
+        }
+        // Classes instrumented by a previous run are taken from the cache
+        ClassReader reader = new ClassReader(is);
+        return cache.getTransformedBytes(className, reader.b, original -> instrumentation.transformBytes(this, className, reader));
     }
 
     private void createPackageDefinition(String className){
@@ -105,7 +142,12 @@ public class InstrumentingClassLoader extends ClassLoader {
             Package pkg = getPackage(className.substring(0, i));
             if(pkg==null){
                 // If it is not loadeed we will define it to the classloder
-                definePackage(packageName, null, null, null, null, null, null, null);
+                try{
+                    definePackage(packageName, null, null, null, null, null, null, null);
+                }catch (IllegalArgumentException e){
+                    // Defined by another thread in the meantime
+                    return;
+                }
                 LOG.debug("Defined package (3): "+getPackage(packageName)+", "+getPackage(packageName).hashCode());
             }
         }
@@ -115,4 +157,37 @@ public class InstrumentingClassLoader extends ClassLoader {
         HashSet<String> loadedClasses = new HashSet<String>(this.visitedClasses.keySet());
         return loadedClasses;
     }
+
+    /**
+     * @return number of classes that this loader instrumented and defined.
+     */
+    public long getInstrumentedClasses() {
+        return instrumentedClasses.get();
+    }
+
+    /**
+     * @return number of loads delegated to the parent loader, for the classes that cannot be instrumented.
+     */
+    public long getDelegatedClasses() {
+        return delegatedClasses.get();
+    }
+
+    /**
+     * @return number of loads answered by the classes that this loader already defined.
+     */
+    public long getVisitedClassHits() {
+        return visitedClassHits.get();
+    }
+
+    /**
+     * @return time spent in the instrumentation, in milliseconds.
+     */
+    public long getInstrumentationTime() {
+        return TimeUnit.NANOSECONDS.toMillis(instrumentationTime.get());
+    }
+
+    public void logStatistics() {
+        LOG.info("Instrumenting class loader: {} classes instrumented in {} ms, {} loads of defined classes, {} delegated loads, {} bytecode cache hits",
+                getInstrumentedClasses(), getInstrumentationTime(), getVisitedClassHits(), getDelegatedClasses(), BytecodeCache.getInstance().getHits());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package eu.stamp.botsing.commons.instrumentation;
+
+import org.evosuite.classpath.ResourceList;
+import org.evosuite.instrumentation.MethodEntryAdapter;
+import org.evosuite.runtime.classhandling.ClassResetter;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Traces the entry and the exit of the methods that the {@link InstrumentationProfile} does not trace, as
+ * {@link org.evosuite.instrumentation.ExecutionPathClassAdapter} does, but without their lines and branches. The crash
+ * coverage compares the depth of the calls in the trace with the frames, so a method that calls a frame must stay in
+ * the trace even if its lines do not matter. Unlike the execution path adapter, it does not ask the dependency
+ * analysis of the run which methods to instrument, so that the bytecode of an untraced class stays the same from a
+ * run to another and can be cached by {@link BytecodeCache}.
+ */
+public class MethodEntryClassAdapter extends ClassVisitor {
+
+    private final String className;
+    private boolean isEnum = false;
+
+    public MethodEntryClassAdapter(ClassVisitor visitor, String className) {
+        super(Opcodes.ASM5, visitor);
+        this.className = ResourceList.getClassNameFromResourcePath(className);
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+        super.visit(version, access, name, signature, superName, interfaces);
+        isEnum = "java/lang/Enum".equals(superName);
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+        MethodVisitor visitor = super.visitMethod(access, name, descriptor, signature, exceptions);
+        if ((access & (Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE)) != 0 || name.equals("<clinit>")
+                || name.equals(ClassResetter.STATIC_RESET) || (isEnum && (name.equals("valueOf") || name.equals("values")))) {
+            return visitor;
+        }
+        return new MethodEntryAdapter(visitor, access, className, name, descriptor);
+    }
+}
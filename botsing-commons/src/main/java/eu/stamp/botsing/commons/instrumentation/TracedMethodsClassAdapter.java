@@ -0,0 +1,31 @@
+package eu.stamp.botsing.commons.instrumentation;
+
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Sends the methods traced by the {@link InstrumentationProfile} to the tracing adapters of the class, and the other
+ * methods to the untraced adapters, which only trace their entry and exit.
+ */
+public class TracedMethodsClassAdapter extends ClassVisitor {
+
+    private final ClassVisitor untraced;
+    private final String className;
+    private final InstrumentationProfile profile;
+
+    public TracedMethodsClassAdapter(ClassVisitor traced, ClassVisitor untraced, String className, InstrumentationProfile profile) {
+        super(Opcodes.ASM5, traced);
+        this.untraced = untraced;
+        this.className = className;
+        this.profile = profile;
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+        if (profile.isTracedMethod(className, name)) {
+            return super.visitMethod(access, name, descriptor, signature, exceptions);
+        }
+        return untraced.visitMethod(access, name, descriptor, signature, exceptions);
+    }
+}
@@ -7,11 +7,18 @@ import org.evosuite.graphs.cfg.BytecodeInstructionPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TestGenerationContextUtility {
     private static final Logger LOG = LoggerFactory.getLogger(TestGenerationContextUtility.class);
 
+    // (class, line) -> method of the line, for each class loader of the SUT
+    private static final Map<ClassLoader, Map<String, String>> resolvedMethods = Collections.synchronizedMap(new WeakHashMap<>());
+
     public static ClassLoader getTestGenerationContextClassLoader(boolean isIntegration){
         if(isIntegration){
             return BotsingTestGenerationContext.getInstance().getClassLoaderForSUT();
@@ -21,16 +28,25 @@ public class TestGenerationContextUtility {
     }
 
 
+    /**
+     * Returns the name and descriptor of the method containing the given line of the class. The resolved methods are
+     * cached per class loader, since the bytecode instructions of a loaded class do not change during a run.
+     */
     public static  String derivingMethodFromBytecode(boolean isIntegration, String className, int lineNumber){
-        List<BytecodeInstruction> instructions = BytecodeInstructionPool.getInstance(getTestGenerationContextClassLoader(isIntegration)).getInstructionsIn(className);
+        ClassLoader classLoader = getTestGenerationContextClassLoader(isIntegration);
+        Map<String, String> methods = getResolvedMethods(classLoader);
+        String key = className + ":" + lineNumber;
+        String bytecodeMethodName = methods.get(key);
+        if (bytecodeMethodName != null) {
+            return bytecodeMethodName;
+        }
+
+        List<BytecodeInstruction> instructions = BytecodeInstructionPool.getInstance(classLoader).getInstructionsIn(className);
         if (instructions != null) {
-            for (BytecodeInstruction ins : instructions) {
-                if(ins != null) {
-                    if (ins.getLineNumber() == lineNumber){
-                        String bytecodeMethodName = ins.getMethodName();
-                        return bytecodeMethodName;
-                    }
-                }
+            bytecodeMethodName = findMethod(instructions, lineNumber);
+            if (bytecodeMethodName != null) {
+                methods.put(key, bytecodeMethodName);
+                return bytecodeMethodName;
             }
                 LOG.error("CrashCoverageTestfitness.derivingMethodFromBytecode: instruction for this line number " + lineNumber+" does not found!");
         } else {
@@ -39,4 +55,48 @@ public class TestGenerationContextUtility {
         return null;
     }
 
+    /**
+     * Resolves eagerly the methods of the given frames whose classes are already instrumented, so that the fitness
+     * evaluations find them in the cache. The other frames are resolved when they are first asked.
+     */
+    public static void resolveMethodsOfFrames(boolean isIntegration, List<StackTraceElement> frames){
+        ClassLoader classLoader = getTestGenerationContextClassLoader(isIntegration);
+        Map<String, String> methods = getResolvedMethods(classLoader);
+        BytecodeInstructionPool pool = BytecodeInstructionPool.getInstance(classLoader);
+        int resolved = 0;
+        for (StackTraceElement frame : frames) {
+            List<BytecodeInstruction> instructions = pool.getInstructionsIn(frame.getClassName());
+            String bytecodeMethodName = instructions == null ? null : findMethod(instructions, frame.getLineNumber());
+            if (bytecodeMethodName != null) {
+                methods.put(frame.getClassName() + ":" + frame.getLineNumber(), bytecodeMethodName);
+                resolved++;
+            }
+        }
+        LOG.debug("Methods of {} out of {} frames resolved", resolved, frames.size());
+    }
+
+    /**
+     * Forgets the resolved methods, e.g., when the instructions of a class are cleared from the pool.
+     */
+    public static void clearResolvedMethods(){
+        resolvedMethods.clear();
+    }
+
+    private static Map<String, String> getResolvedMethods(ClassLoader classLoader){
+        synchronized (resolvedMethods) {
+            return resolvedMethods.computeIfAbsent(classLoader, loader -> new ConcurrentHashMap<>());
+        }
+    }
+
+    private static String findMethod(List<BytecodeInstruction> instructions, int lineNumber){
+        for (BytecodeInstruction ins : instructions) {
+            if(ins != null) {
+                if (ins.getLineNumber() == lineNumber){
+                    return ins.getMethodName();
+                }
+            }
+        }
+        return null;
+    }
+
 }
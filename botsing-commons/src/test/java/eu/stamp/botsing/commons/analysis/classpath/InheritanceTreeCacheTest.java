@@ -0,0 +1,84 @@
+package eu.stamp.botsing.commons.analysis.classpath;
+
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.setup.InheritanceTree;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class InheritanceTreeCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<String> classPath;
+    private Path classFile;
+
+    @Before
+    public void before() throws IOException {
+        // A class path with the classes of the test only
+        File classes = folder.newFolder("classes");
+        String resource = SubClass.class.getName().replace('.', '/') + ".class";
+        classFile = classes.toPath().resolve(resource);
+        Files.createDirectories(classFile.getParent());
+        try (InputStream in = SubClass.class.getResourceAsStream("/" + resource)) {
+            Files.copy(in, classFile);
+        }
+        classPath = Collections.singletonList(classes.getAbsolutePath());
+        ClassPathHandler.getInstance().changeTargetClassPath(classPath.toArray(new String[0]));
+    }
+
+    @Test
+    public void testSnapshotIsReused() throws IOException {
+        InheritanceTreeCache cache = new InheritanceTreeCache();
+        assertNull(cache.getSnapshot(classPath));
+
+        cache.configure(folder.newFolder("cache").toPath());
+        Path snapshot = cache.getSnapshot(classPath);
+        assertNotNull(snapshot);
+        long stored = Files.getLastModifiedTime(snapshot).toMillis();
+
+        // Another run on the same class path
+        InheritanceTreeCache nextRun = new InheritanceTreeCache();
+        nextRun.configure(snapshot.getParent());
+        assertEquals(snapshot, nextRun.getSnapshot(classPath));
+        assertEquals(stored, Files.getLastModifiedTime(snapshot).toMillis());
+
+        InheritanceTree inheritanceTree = nextRun.getInheritanceTree(classPath);
+        assertTrue(inheritanceTree.hasClass(SubClass.class.getName()));
+        assertTrue(inheritanceTree.getSuperclasses(SubClass.class.getName()).contains(SuperClass.class.getName()));
+    }
+
+    @Test
+    public void testKeyChangesWithTheClassPath() throws IOException {
+        String key = InheritanceTreeCache.key(classPath);
+        assertEquals(key, InheritanceTreeCache.key(classPath));
+
+        Files.write(classFile, new byte[]{0}, StandardOpenOption.APPEND);
+        assertNotEquals(key, InheritanceTreeCache.key(classPath));
+        assertFalse(InheritanceTreeCache.key(classPath).isEmpty());
+    }
+
+    static class SuperClass {
+    }
+
+    static class SubClass extends SuperClass {
+    }
+}
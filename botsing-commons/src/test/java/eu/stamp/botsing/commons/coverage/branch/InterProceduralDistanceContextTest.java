@@ -0,0 +1,70 @@
+package eu.stamp.botsing.commons.coverage.branch;
+
+import eu.stamp.botsing.commons.BotsingTestGenerationContext;
+import org.evosuite.coverage.branch.Branch;
+import org.evosuite.graphs.GraphPool;
+import org.evosuite.graphs.cfg.ActualControlFlowGraph;
+import org.evosuite.testcase.execution.MethodCall;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class InterProceduralDistanceContextTest {
+
+    private ActualControlFlowGraph registerGraph(int diameter) {
+        ActualControlFlowGraph cfg = Mockito.mock(ActualControlFlowGraph.class);
+        Mockito.doReturn("IntegrationTestingGraph").when(cfg).getClassName();
+        Mockito.doReturn("methodsIntegration").when(cfg).getMethodName();
+        Mockito.doReturn(diameter).when(cfg).getDiameter();
+        GraphPool.getInstance(BotsingTestGenerationContext.getInstance().getClassLoaderForSUT()).registerActualCFG(cfg);
+        return cfg;
+    }
+
+    private Branch branch(int id) {
+        Branch branch = Mockito.mock(Branch.class);
+        Mockito.when(branch.getActualBranchId()).thenReturn(id);
+        return branch;
+    }
+
+    @Test
+    public void testDiameterIsComputedOncePerGraph() {
+        ActualControlFlowGraph cfg = registerGraph(10);
+        InterProceduralDistanceContext context = InterProceduralDistanceContext.getInstance();
+        assertEquals(10, context.getDiameter());
+        assertSame(context, InterProceduralDistanceContext.getInstance());
+        Mockito.verify(cfg, Mockito.times(1)).getDiameter();
+
+        registerGraph(20);
+        InterProceduralDistanceContext newContext = InterProceduralDistanceContext.getInstance();
+        assertNotSame(context, newContext);
+        assertEquals(20, newContext.getDiameter());
+    }
+
+    @Test
+    public void testBranchTracePositions() {
+        MethodCall call = new MethodCall("ClassA", "method1", 12, 1, 1);
+        call.branchTrace = Arrays.asList(1, 2, 10, 2);
+
+        assertEquals(new HashSet<>(Arrays.asList(1, 3)), InterProceduralDistanceContext.getBranchTracePositions(call, branch(2)));
+        assertEquals(new HashSet<>(Arrays.asList(2)), InterProceduralDistanceContext.getBranchTracePositions(call, branch(10)));
+        assertTrue(InterProceduralDistanceContext.getBranchTracePositions(call, branch(13)).isEmpty());
+
+        // A replaced or extended trace is indexed again
+        call.branchTrace = Arrays.asList(13);
+        assertEquals(new HashSet<>(Arrays.asList(0)), InterProceduralDistanceContext.getBranchTracePositions(call, branch(13)));
+        List<Integer> trace = new ArrayList<>(Arrays.asList(5));
+        call.branchTrace = trace;
+        assertTrue(InterProceduralDistanceContext.getBranchTracePositions(call, branch(6)).isEmpty());
+        trace.add(6);
+        assertEquals(new HashSet<>(Arrays.asList(1)), InterProceduralDistanceContext.getBranchTracePositions(call, branch(6)));
+    }
+}
@@ -0,0 +1,159 @@
+package eu.stamp.botsing.commons.instrumentation;
+
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.runtime.instrumentation.LoopCounterClassAdapter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BytecodeCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final String className = Fixture.class.getName().replace('.', '/');
+    private final AtomicInteger instrumentations = new AtomicInteger();
+    private final Function<byte[], byte[]> instrumentation = original -> {
+        instrumentations.incrementAndGet();
+        ClassReader reader = new ClassReader(original);
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        reader.accept(new LoopCounterClassAdapter(writer), ClassReader.SKIP_FRAMES);
+        return writer.toByteArray();
+    };
+
+    private boolean pureInspectors;
+
+    @Before
+    public void traceFrames() {
+        pureInspectors = Properties.PURE_INSPECTORS;
+        Properties.PURE_INSPECTORS = false;
+        InstrumentationProfile.getInstance().traceFrames(Collections.singletonList(
+                new StackTraceElement("eu.stamp.ClassA", "method1", "ClassA.java", 10)));
+    }
+
+    @After
+    public void reset() {
+        Properties.PURE_INSPECTORS = pureInspectors;
+        InstrumentationProfile.getInstance().reset();
+    }
+
+    private byte[] original() throws IOException {
+        try (InputStream in = Fixture.class.getResourceAsStream("/" + className + ".class")) {
+            return new ClassReader(in).b;
+        }
+    }
+
+    @Test
+    public void testUntracedClassIsInstrumentedOnce() throws IOException {
+        BytecodeCache cache = new BytecodeCache();
+        cache.configure(folder.getRoot().toPath(), 1024 * 1024);
+        assertTrue(cache.isCacheable(className));
+        assertFalse(cache.isCacheable("eu/stamp/ClassA"));
+
+        byte[] transformed = cache.getTransformedBytes(className, original(), instrumentation);
+        assertEquals(1, cache.getMisses());
+
+        // Another run on the same class path
+        BytecodeCache nextRun = new BytecodeCache();
+        nextRun.configure(folder.getRoot().toPath(), 1024 * 1024);
+        byte[] cached = nextRun.getTransformedBytes(className, original(), instrumentation);
+        assertEquals(1, instrumentations.get());
+        assertEquals(1, nextRun.getHits());
+        assertEquals(BytecodeCache.loopIndices(transformed).length, BytecodeCache.loopIndices(cached).length);
+    }
+
+    @Test
+    public void testChangedClassPathIsNotReused() throws IOException {
+        // A class path with a dependency of the class
+        File dependency = folder.newFolder("classpath", "eu", "stamp");
+        Path classFile = dependency.toPath().resolve("Dependency.class");
+        Files.write(classFile, new byte[]{1});
+        ClassPathHandler.getInstance().changeTargetClassPath(new String[]{folder.getRoot().toPath().resolve("classpath").toString()});
+
+        Path directory = folder.newFolder("cache").toPath();
+        BytecodeCache cache = new BytecodeCache();
+        cache.configure(directory, 1024 * 1024);
+        cache.getTransformedBytes(className, original(), instrumentation);
+
+        // The frames computed with the previous version of the dependency may not be valid anymore
+        Files.write(classFile, new byte[]{1, 2});
+        BytecodeCache nextRun = new BytecodeCache();
+        nextRun.configure(directory, 1024 * 1024);
+        nextRun.getTransformedBytes(className, original(), instrumentation);
+        assertEquals(2, instrumentations.get());
+        assertEquals(0, nextRun.getHits());
+    }
+
+    @Test
+    public void testLoopIndicesAreRemapped() throws IOException {
+        byte[] transformed = instrumentation.apply(original());
+        int[] indices = BytecodeCache.loopIndices(transformed);
+        assertTrue(indices.length >= 2);
+
+        Map<Integer, Integer> newIndices = new HashMap<>();
+        int[] expected = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            newIndices.put(indices[i], 100 + i);
+            expected[i] = 100 + i;
+        }
+        assertArrayEquals(expected, BytecodeCache.loopIndices(BytecodeCache.remapLoopIndices(transformed, newIndices)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws IOException {
+        BytecodeCache cache = new BytecodeCache();
+        cache.configure(folder.getRoot().toPath(), 1);
+        cache.getTransformedBytes(className, original(), instrumentation);
+        assertEquals(1, cache.getEvictions());
+        assertEquals(0, folder.getRoot().list((dir, name) -> name.endsWith(".class")).length);
+    }
+
+    @Test
+    public void testDisabledCache() throws IOException {
+        BytecodeCache cache = new BytecodeCache();
+        assertFalse(cache.isCacheable(className));
+        cache.configure(folder.getRoot().toPath(), 1024 * 1024);
+        Properties.PURE_INSPECTORS = true;
+        assertFalse(cache.isCacheable(className));
+        cache.getTransformedBytes(className, original(), instrumentation);
+        cache.getTransformedBytes(className, original(), instrumentation);
+        assertEquals(2, instrumentations.get());
+        assertEquals(0, cache.getMisses());
+    }
+
+    static class Fixture {
+        int sum(int[] values) {
+            int sum = 0;
+            for (int value : values) {
+                sum += value;
+            }
+            int index = 0;
+            while (index < values.length) {
+                index++;
+            }
+            return sum + index + Arrays.hashCode(values);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.evosuite.classpath.ClassPathHandler;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import com.google.common.util.concurrent.Callables;
 
@@ -48,6 +49,26 @@ public class ClassInstrumentationTest {
     }
 
 
+    @Test
+    public void testBatchesKeepTheOrderOfTheClasses()  {
+        interestingClasses.clear();
+        interestingClasses.add(Integer.class.getName());
+        interestingClasses.add(String.class.getName());
+        interestingClasses.add(Integer.class.getName());
+        interestingClasses.add(Boolean.class.getName());
+        interestingClasses.add(Long.class.getName());
+
+        ClassInstrumentation batchedInstrumentation = new ClassInstrumentation(2);
+        List<Class> instrumentedClasses = batchedInstrumentation.instrumentClasses(interestingClasses, Long.class.getName());
+        assertEquals(Arrays.asList(Integer.class, String.class, Boolean.class, Long.class), instrumentedClasses);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize()  {
+        new ClassInstrumentation(0);
+    }
+
+
     @Test
     public void Instrumentable(){
         interestingClasses.clear();
@@ -0,0 +1,127 @@
+package eu.stamp.botsing.commons.instrumentation;
+
+import org.junit.After;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InstrumentationProfileTest {
+
+    @After
+    public void reset() {
+        InstrumentationProfile.getInstance().reset();
+    }
+
+    @Test
+    public void testEverythingIsTracedByDefault() {
+        InstrumentationProfile profile = InstrumentationProfile.getInstance();
+        assertFalse(profile.isSelective());
+        assertTrue(profile.isTracedClass("eu/stamp/ClassA"));
+        assertTrue(profile.isTracedMethod("eu/stamp/ClassA", "method1()V"));
+    }
+
+    @Test
+    public void testOnlyFramesAreTraced() {
+        InstrumentationProfile profile = InstrumentationProfile.getInstance();
+        profile.traceFrames(Arrays.asList(
+                new StackTraceElement("eu.stamp.ClassA", "method1", "ClassA.java", 10),
+                new StackTraceElement("eu.stamp.ClassB$1", "<init>", "ClassB.java", 20)));
+
+        assertTrue(profile.isSelective());
+        assertTrue(profile.isTracedClass("eu/stamp/ClassA"));
+        assertTrue(profile.isTracedClass("eu.stamp.ClassB$1"));
+        assertFalse(profile.isTracedClass("eu/stamp/ClassB"));
+
+        assertTrue(profile.isTracedMethod("eu/stamp/ClassA", "method1(I)V"));
+        assertTrue(profile.isTracedMethod("eu.stamp.ClassA", "method1"));
+        assertTrue(profile.isTracedMethod("eu/stamp/ClassB$1", "<init>()V"));
+        assertFalse(profile.isTracedMethod("eu/stamp/ClassA", "method2()V"));
+        assertFalse(profile.isTracedMethod("eu/stamp/ClassC", "method1()V"));
+    }
+
+    @Test
+    public void testUntracedMethodsSkipTheTracingAdapters() throws IOException {
+        InstrumentationProfile profile = InstrumentationProfile.getInstance();
+        profile.traceFrames(Arrays.asList(new StackTraceElement(Fixture.class.getName(), "traced", "InstrumentationProfileTest.java", 1)));
+
+        String className = Fixture.class.getName().replace('.', '/');
+        RecordingClassVisitor untraced = new RecordingClassVisitor(null);
+        RecordingClassVisitor traced = new RecordingClassVisitor(untraced);
+        ClassReader reader = new ClassReader(Fixture.class.getName());
+        reader.accept(new TracedMethodsClassAdapter(traced, untraced, className, profile), ClassReader.SKIP_FRAMES);
+
+        assertEquals(Arrays.asList("traced"), traced.methods);
+        assertTrue(untraced.methods.contains("<init>"));
+        assertTrue(untraced.methods.contains("untraced"));
+        assertTrue(untraced.methods.contains("traced"));
+    }
+
+    @Test
+    public void testUntracedMethodsKeepTheirEntryAndExit() throws IOException {
+        String className = Fixture.class.getName().replace('.', '/');
+        CallRecordingClassVisitor calls = new CallRecordingClassVisitor();
+        new ClassReader(Fixture.class.getName()).accept(new MethodEntryClassAdapter(calls, className), ClassReader.SKIP_FRAMES);
+
+        // The calls of the untraced methods are in the trace, so the frames they call keep their depth
+        assertEquals(Arrays.asList("enteredMethod", "leftMethod"), calls.tracerCalls.get("untraced"));
+        assertEquals(Arrays.asList("enteredMethod", "leftMethod"), calls.tracerCalls.get("<init>"));
+    }
+
+    static class Fixture {
+        void traced() {
+        }
+
+        void untraced() {
+        }
+    }
+
+    // Records the calls to the execution tracer of each method
+    private static class CallRecordingClassVisitor extends ClassVisitor {
+        private final Map<String, List<String>> tracerCalls = new HashMap<>();
+
+        CallRecordingClassVisitor() {
+            super(Opcodes.ASM5);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            List<String> calls = new ArrayList<>();
+            tracerCalls.put(name, calls);
+            return new MethodVisitor(Opcodes.ASM5) {
+                @Override
+                public void visitMethodInsn(int opcode, String owner, String method, String methodDescriptor, boolean isInterface) {
+                    if (owner.endsWith("/ExecutionTracer")) {
+                        calls.add(method);
+                    }
+                }
+            };
+        }
+    }
+
+    private static class RecordingClassVisitor extends ClassVisitor {
+        private final List<String> methods = new ArrayList<>();
+
+        RecordingClassVisitor(ClassVisitor next) {
+            super(Opcodes.ASM5, next);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            methods.add(name);
+            return super.visitMethod(access, name, descriptor, signature, exceptions);
+        }
+    }
+}
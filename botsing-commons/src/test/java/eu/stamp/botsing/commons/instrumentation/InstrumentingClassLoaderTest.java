@@ -0,0 +1,82 @@
+package eu.stamp.botsing.commons.instrumentation;
+
+import org.evosuite.classpath.ClassPathHandler;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class InstrumentingClassLoaderTest {
+
+    private final AtomicInteger transformations = new AtomicInteger();
+
+    // Leaves the bytecode as it is, and only counts the transformations
+    private final BotsingBytecodeInstrumentation instrumentation = new BotsingBytecodeInstrumentation() {
+        @Override
+        public byte[] transformBytes(ClassLoader classLoader, String className, ClassReader reader) {
+            transformations.incrementAndGet();
+            return reader.b;
+        }
+    };
+
+    @Before
+    public void initialize() {
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+    }
+
+    @Test
+    public void testClassesAreDefinedOnceByConcurrentThreads() throws Exception {
+        InstrumentingClassLoader loader = new InstrumentingClassLoader(instrumentation);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Class<?>>> results = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                results.add(executor.submit((Callable<Class<?>>) () -> {
+                    start.await();
+                    return loader.loadClass(Fixture.class.getName());
+                }));
+            }
+            start.countDown();
+
+            Class<?> loaded = results.get(0).get();
+            for (Future<Class<?>> result : results) {
+                assertSame(loaded, result.get());
+            }
+            assertNotSame(Fixture.class, loaded);
+            assertSame(loader, loaded.getClassLoader());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, transformations.get());
+        assertEquals(1, loader.getInstrumentedClasses());
+        assertTrue(loader.getLoadedClasses().contains(Fixture.class.getName()));
+        assertEquals(threads - 1, loader.getVisitedClassHits());
+    }
+
+    @Test
+    public void testClassesThatCannotBeInstrumentedAreDelegated() throws ClassNotFoundException {
+        InstrumentingClassLoader loader = new InstrumentingClassLoader(instrumentation);
+        assertSame(String.class, loader.loadClass(String.class.getName()));
+        assertEquals(1, loader.getDelegatedClasses());
+        assertEquals(0, transformations.get());
+    }
+
+    public static class Fixture {
+    }
+}
@@ -4,9 +4,12 @@ import eu.stamp.botsing.commons.BotsingTestGenerationContext;
 import org.evosuite.graphs.cfg.BytecodeInstruction;
 import org.evosuite.graphs.cfg.BytecodeInstructionPool;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.Arrays;
+
 public class TestGenerationContextUtilityTest {
 
     BytecodeInstructionPool bytecodePool = BytecodeInstructionPool.getInstance( BotsingTestGenerationContext.getInstance().getClassLoaderForSUT());
@@ -15,6 +18,11 @@ public class TestGenerationContextUtilityTest {
     String methodName = "eu.stamp.SomeMethod";
     int lineNumber = 1;
 
+    @Before
+    public void clearCache(){
+        TestGenerationContextUtility.clearResolvedMethods();
+    }
+
     @Test
     public void test_getTestGenerationContextClassLoader(){
         ClassLoader classLoader_NoIntegration = TestGenerationContextUtility.getTestGenerationContextClassLoader(false);
@@ -68,4 +76,27 @@ public class TestGenerationContextUtilityTest {
         String returnedMethodName = TestGenerationContextUtility.derivingMethodFromBytecode(true, className,lineNumber);
         Assert.assertEquals(null, returnedMethodName);
     }
+
+    @Test
+    public void test_cachedMethod_derivingMethodFromBytecode(){
+        bytecodePool.clear(className);
+
+        BytecodeInstruction inst1 = Mockito.mock(BytecodeInstruction.class);
+
+        Mockito.when(inst1.getClassName()).thenReturn(className);
+        Mockito.when(inst1.getMethodName()).thenReturn(methodName);
+        Mockito.when(inst1.getLineNumber()).thenReturn(lineNumber);
+
+        bytecodePool.registerInstruction(inst1);
+        TestGenerationContextUtility.resolveMethodsOfFrames(true, Arrays.asList(new StackTraceElement(className, "SomeMethod", "SomeClass", lineNumber),
+                new StackTraceElement("eu.stamp.UnknownClass", "method", "UnknownClass", lineNumber)));
+
+        // The resolved method does not depend on the pool anymore
+        bytecodePool.clear(className);
+        Assert.assertEquals(methodName, TestGenerationContextUtility.derivingMethodFromBytecode(true, className,lineNumber));
+        Assert.assertEquals(null, TestGenerationContextUtility.derivingMethodFromBytecode(true, "eu.stamp.UnknownClass",lineNumber));
+
+        TestGenerationContextUtility.clearResolvedMethods();
+        Assert.assertEquals(null, TestGenerationContextUtility.derivingMethodFromBytecode(true, className,lineNumber));
+    }
 }
@@ -10,6 +10,8 @@ import java.util.List;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.handler.DefaultArtifactHandler;
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Exclusion;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -40,6 +42,7 @@ import org.eclipse.aether.resolution.VersionRangeResolutionException;
 import org.eclipse.aether.resolution.VersionRangeResult;
 
 import eu.stamp.botsing.setup.BotsingConfiguration;
+import eu.stamp.botsing.setup.ClasspathCache;
 import eu.stamp.botsing.setup.FileUtility;
 
 /**
@@ -92,6 +95,13 @@ public class BotsingMojo extends AbstractMojo {
 	@Parameter(property = "max_target_frame")
 	private Integer maxTargetFrame;
 
+	/**
+	 * Maximum number of target frames executed at the same time when the target
+	 * frame is searched, with a default value of the available processors
+	 */
+	@Parameter(property = "parallel_frames")
+	private Integer parallelFrames;
+
 	/**
 	 * Maximum value of target_frame to consider if frame is read from stacktrace file
 	 */
@@ -141,6 +151,14 @@ public class BotsingMojo extends AbstractMojo {
 	@Parameter(property = "no_runtime_dependency", defaultValue = "false")
 	private String noRuntimeDependency;
 
+	/**
+	 * Reuse the classpath resolved by a previous execution (stored in
+	 * target/botsing) when the dependencies and the local repository have not
+	 * changed
+	 */
+	@Parameter(property = "classpath_cache", defaultValue = "true")
+	private Boolean classpathCache;
+
 	/*
 	 * Parameters to get dependencies from artifactId
 	 */
@@ -249,7 +267,7 @@ public class BotsingMojo extends AbstractMojo {
 					new DefaultArtifact("eu.stamp-project", "botsing-reproduction", "", "jar", botsingVersion));
 
 			Integer actualTargetFrame = ProcessRunner.executeBotsingReproduction(project.getBasedir(), botsingReproductionJar,
-					configuration, getMaxTargetFrame(cleanedCrashLog), getLog());
+					configuration, getMaxTargetFrame(cleanedCrashLog), getParallelFrames(), getLog());
 
 			if (actualTargetFrame <= 0) {
 				throw new MojoFailureException("Failed to reproduce the stacktrace.");
@@ -265,6 +283,13 @@ public class BotsingMojo extends AbstractMojo {
 		getLog().info("Stopping Botsing");
 	}
 
+	private Integer getParallelFrames() {
+		if (parallelFrames != null) {
+			return parallelFrames;
+		}
+		return Runtime.getRuntime().availableProcessors();
+	}
+
 	/**
 	 * if maxTargetFrame and targetFrame are not set, set maxTargetFrame from crashLog rows
 	 * @return
@@ -346,6 +371,115 @@ public class BotsingMojo extends AbstractMojo {
 	}
 
 	public String getDependenciesWithMaven(DependencyInputType dependencyType) throws MojoExecutionException {
+		ClasspathCache cache = null;
+		String key = null;
+
+		if (isClasspathCacheable(dependencyType)) {
+			cache = new ClasspathCache(new File(project.getBuild().getDirectory(), "botsing"), getLog());
+			key = ClasspathCache.getKey(getClasspathCacheInputs(dependencyType));
+
+			String cachedClasspath = cache.get(key);
+			if (cachedClasspath != null) {
+				getLog().info("Reusing the dependencies resolved by a previous execution");
+				return cachedClasspath;
+			}
+		}
+
+		String result = resolveDependenciesWithMaven(dependencyType);
+
+		if (cache != null) {
+			cache.put(key, result, getClasspathCacheDescriptors(result));
+		}
+
+		return result;
+	}
+
+	private boolean isClasspathCacheable(DependencyInputType dependencyType) {
+		if (classpathCache == null || !classpathCache) {
+			return false;
+		}
+
+		// the highest version of the artifact (or of a range) might change at each
+		// execution
+		if (dependencyType == DependencyInputType.ARTIFACT) {
+			return ClasspathCache.isFixedVersion(version);
+		}
+
+		if (dependencyType == DependencyInputType.POM) {
+			for (Dependency dependency : project.getDependencies()) {
+				if (!ClasspathCache.isFixedVersion(dependency.getVersion())) {
+					getLog().debug("Dependencies not cached, " + getDependencyId(dependency) + " has no fixed version");
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the descriptors read by the resolution of the dependencies: the POM
+	 *         files of the resolved artifacts, which give the transitive
+	 *         dependencies, and those of the reactor
+	 */
+	private List<File> getClasspathCacheDescriptors(String classpath) {
+		List<File> descriptors = ClasspathCache.getDescriptors(classpath);
+
+		for (MavenProject reactorProject : reactorProjects) {
+			if (reactorProject.getFile() != null && !descriptors.contains(reactorProject.getFile())) {
+				descriptors.add(reactorProject.getFile());
+			}
+		}
+
+		return descriptors;
+	}
+
+	/**
+	 * @return what the resolution of the dependencies depends on
+	 */
+	private List<String> getClasspathCacheInputs(DependencyInputType dependencyType) {
+		List<String> inputs = new ArrayList<String>();
+		inputs.add(dependencyType.name());
+		inputs.add(repoSession.getLocalRepository().getBasedir().getAbsolutePath());
+
+		if (dependencyType == DependencyInputType.POM) {
+
+			// effective dependencies of the project
+			inputs.add(project.getId());
+			for (Dependency dependency : project.getDependencies()) {
+				inputs.add(getDependencyId(dependency));
+			}
+
+			if (project.getDependencyManagement() != null) {
+				for (Dependency dependency : project.getDependencyManagement().getDependencies()) {
+					inputs.add("managed:" + getDependencyId(dependency));
+				}
+			}
+
+		} else if (dependencyType == DependencyInputType.ARTIFACT) {
+			inputs.add(groupId + ":" + artifactId + ":" + classifier + ":" + extension + ":" + version);
+		}
+
+		for (MavenProject reactorProject : reactorProjects) {
+			inputs.add("reactor:" + reactorProject.getId());
+		}
+
+		return inputs;
+	}
+
+	private String getDependencyId(Dependency dependency) {
+		String id = dependency.getGroupId() + ":" + dependency.getArtifactId() + ":" + dependency.getType() + ":"
+				+ dependency.getClassifier() + ":" + dependency.getVersion() + ":" + dependency.getScope() + ":"
+				+ dependency.isOptional();
+
+		for (Exclusion exclusion : dependency.getExclusions()) {
+			id += ":!" + exclusion.getGroupId() + ":" + exclusion.getArtifactId();
+		}
+
+		return id;
+	}
+
+	private String resolveDependenciesWithMaven(DependencyInputType dependencyType) throws MojoExecutionException {
 		String result = "";
 
 		if (dependencyType == DependencyInputType.POM) {
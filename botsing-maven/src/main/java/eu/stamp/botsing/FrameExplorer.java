@@ -0,0 +1,210 @@
+package eu.stamp.botsing;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Looks for the highest target frame whose crash can be reproduced. The frames are tried from the highest to the
+ * lowest, but several of them run at the same time: as soon as a frame reproduces the crash and all the higher frames
+ * have failed, the attempts on the lower frames are cancelled. A frame that reproduces the crash while higher frames
+ * are still running cancels the lower ones, and waits for the higher ones.
+ */
+public class FrameExplorer {
+
+	/**
+	 * Tries to reproduce the crash up to a target frame.
+	 */
+	public interface FrameRunner {
+		/**
+		 * @return true if a reproduction test has been generated
+		 */
+		boolean run(int targetFrame) throws InterruptedException, IOException;
+	}
+
+	public enum Status {
+		REPRODUCED, NOT_REPRODUCED, FAILED, CANCELLED, SKIPPED
+	}
+
+	private final int parallelism;
+	private final Log log;
+
+	private final Map<Integer, Status> statuses = new HashMap<Integer, Status>();
+	private final Map<Integer, Long> startTimes = new HashMap<Integer, Long>();
+	private final Map<Integer, Long> times = new HashMap<Integer, Long>();
+
+	/**
+	 * @param parallelism maximum number of frames tried at the same time
+	 */
+	public FrameExplorer(int parallelism, Log log) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The number of parallel frames should be at least 1");
+		}
+		this.parallelism = parallelism;
+		this.log = log;
+	}
+
+	/**
+	 * @return the highest target frame that reproduces the crash, or -1
+	 */
+	public int explore(int maxTargetFrame, FrameRunner runner) throws InterruptedException {
+		statuses.clear();
+		startTimes.clear();
+		times.clear();
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, maxTargetFrame)));
+		CompletionService<Integer> completion = new ExecutorCompletionService<Integer>(executor);
+		Map<Integer, Future<Integer>> running = new HashMap<Integer, Future<Integer>>();
+		int nextFrame = maxTargetFrame;
+		int bestFrame = -1;
+
+		try {
+			while (nextFrame > 0 && running.size() < parallelism) {
+				running.put(nextFrame, submit(completion, runner, nextFrame));
+				nextFrame--;
+			}
+
+			while (!running.isEmpty()) {
+				Future<Integer> future = completion.take();
+				Integer frame = getFrame(running, future);
+				if (frame == null) {
+					// cancelled attempt
+					continue;
+				}
+				running.remove(frame);
+				Status status = getStatus(frame, future);
+				synchronized (this) {
+					statuses.put(frame, status);
+					times.put(frame, System.currentTimeMillis() - startTimes.get(frame));
+				}
+
+				if (status == Status.REPRODUCED && frame > bestFrame) {
+					bestFrame = frame;
+					// the lower frames cannot be preferred any more
+					cancelBelow(running, bestFrame);
+					nextFrame = 0;
+				}
+
+				if (bestFrame > 0 && !hasRunningAbove(running, bestFrame)) {
+					break;
+				}
+
+				if (nextFrame > 0) {
+					running.put(nextFrame, submit(completion, runner, nextFrame));
+					nextFrame--;
+				}
+			}
+
+		} finally {
+			cancelBelow(running, Integer.MAX_VALUE);
+			executor.shutdownNow();
+			report(maxTargetFrame);
+		}
+
+		return bestFrame;
+	}
+
+	public synchronized Status getStatus(int targetFrame) {
+		Status status = statuses.get(targetFrame);
+		return status != null ? status : Status.SKIPPED;
+	}
+
+	/**
+	 * @return time spent on the frame in milliseconds, or -1 if it has not been tried
+	 */
+	public synchronized long getTime(int targetFrame) {
+		Long time = times.get(targetFrame);
+		return time != null ? time : -1;
+	}
+
+	private Future<Integer> submit(CompletionService<Integer> completion, FrameRunner runner, int frame) {
+		log.info("Running botsing-reproduction with frame " + frame);
+		synchronized (this) {
+			startTimes.put(frame, System.currentTimeMillis());
+		}
+		return completion.submit(() -> runner.run(frame) ? frame : -frame);
+	}
+
+	private Integer getFrame(Map<Integer, Future<Integer>> running, Future<Integer> future) {
+		for (Map.Entry<Integer, Future<Integer>> entry : running.entrySet()) {
+			if (entry.getValue() == future) {
+				return entry.getKey();
+			}
+		}
+		return null;
+	}
+
+	private Status getStatus(Integer frame, Future<Integer> future) throws InterruptedException {
+		try {
+			return future.get() > 0 ? Status.REPRODUCED : Status.NOT_REPRODUCED;
+
+		} catch (CancellationException e) {
+			return Status.CANCELLED;
+
+		} catch (ExecutionException e) {
+			log.error("Error executing botsing-reproduction with frame " + frame + ": " + e.getCause());
+			return Status.FAILED;
+		}
+	}
+
+	private Status getCompletedStatus(Integer frame, Future<Integer> future) {
+		try {
+			return getStatus(frame, future);
+
+		} catch (InterruptedException e) {
+			// the future is done, get() does not wait
+			Thread.currentThread().interrupt();
+			return Status.CANCELLED;
+		}
+	}
+
+	private void cancelBelow(Map<Integer, Future<Integer>> running, int frame) {
+		for (Map.Entry<Integer, Future<Integer>> entry : running.entrySet()) {
+			if (entry.getKey() >= frame) {
+				continue;
+			}
+			Status status = Status.CANCELLED;
+			if (entry.getValue().cancel(true)) {
+				log.info("Cancelled botsing-reproduction with frame " + entry.getKey());
+
+			} else if (!entry.getValue().isCancelled()) {
+				// the attempt completed in the meantime
+				status = getCompletedStatus(entry.getKey(), entry.getValue());
+			}
+			synchronized (this) {
+				statuses.put(entry.getKey(), status);
+				times.put(entry.getKey(), System.currentTimeMillis() - startTimes.get(entry.getKey()));
+			}
+		}
+		running.keySet().removeIf(key -> key < frame);
+	}
+
+	private boolean hasRunningAbove(Map<Integer, Future<Integer>> running, int frame) {
+		for (Integer key : running.keySet()) {
+			if (key > frame) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void report(int maxTargetFrame) {
+		for (int frame = maxTargetFrame; frame > 0; frame--) {
+			long time = getTime(frame);
+			if (time >= 0) {
+				log.info("Frame " + frame + ": " + getStatus(frame) + " in " + (time / 1000.0) + "s");
+			} else {
+				log.info("Frame " + frame + ": " + getStatus(frame));
+			}
+		}
+	}
+}
@@ -51,7 +51,7 @@ public class ProcessRunner {
 	}
 
 	public static Integer executeBotsingReproduction(File basedir, File botsingReproductionJar,
-			BotsingConfiguration configuration, Integer maxTargetFrame, Log log)
+			BotsingConfiguration configuration, Integer maxTargetFrame, Integer parallelFrames, Log log)
 			throws InterruptedException, IOException {
 
 		Integer targetFrame = configuration.getTargetFrame();
@@ -63,36 +63,41 @@ public class ProcessRunner {
 					new Long(configuration.getGlobalTimeout()), configuration.getProperties(), log);
 
 		} else {
-			// targetFrame (should be null) overridden from maxTargetFrame
-			targetFrame = maxTargetFrame;
-
-			// execute Botsing decreasing target frame until a Botsing is
-			// executed successfully
-			while (!success && targetFrame > 0) {
-
-				log.info("Running botsing-reproduction with frame " + targetFrame);
-				configuration.addMandatoryProperty(BotsingConfiguration.TARGET_FRAME_OPT, targetFrame.toString());
-
-				// clean output folder
-				FileUtility.deleteFolder(configuration.getOptionValue(BotsingConfiguration.TEST_DIR_OPT));
-
-				// execute Botsing
-				success = ProcessRunner.executeJar(basedir, botsingReproductionJar,
-						new Long(configuration.getGlobalTimeout()), configuration.getProperties(), log);
-
-				// stop only if the generated test does not contains "EvoSuite
-				// did not generate any tests"
-				if (success) {
-
-					if (hasReproductionTestBeenGenerated(configuration)) {
-						break;
-
-					} else {
-						success = false;
-					}
+			// targetFrame (should be null) overridden from maxTargetFrame,
+			// several frames are executed at the same time and the highest
+			// frame that gets a reproduction test is kept
+			String testDir = getTestDir(basedir, configuration);
+			FrameExplorer explorer = new FrameExplorer(parallelFrames, log);
+
+			try {
+				targetFrame = explorer.explore(maxTargetFrame, frame -> {
+
+					// each frame has its own output folder
+					String frameTestDir = getFrameTestDir(testDir, frame);
+					FileUtility.deleteFolder(frameTestDir);
+
+					// execute Botsing
+					boolean executed = ProcessRunner.executeJar(basedir, botsingReproductionJar,
+							new Long(configuration.getGlobalTimeout()),
+							configuration.getProperties(frame, frameTestDir), log, "[frame " + frame + "] ");
+
+					// stop only if the generated test does not contains "EvoSuite
+					// did not generate any tests"
+					return executed && hasReproductionTestBeenGenerated(frameTestDir);
+				});
+
+				// keep only the tests of the selected frame in the output folder
+				FileUtility.deleteFolder(testDir);
+				if (targetFrame > 0) {
+					configuration.addMandatoryProperty(BotsingConfiguration.TARGET_FRAME_OPT, targetFrame.toString());
+					Files.move(Paths.get(getFrameTestDir(testDir, targetFrame)), Paths.get(testDir));
+					success = true;
 				}
 
-				targetFrame = configuration.decreaseTargetFrame();
+			} finally {
+				for (int frame = maxTargetFrame; frame > 0; frame--) {
+					FileUtility.deleteFolder(getFrameTestDir(testDir, frame));
+				}
 			}
 		}
 
@@ -105,13 +110,27 @@ public class ProcessRunner {
 		}
 	}
 
-	private static boolean hasReproductionTestBeenGenerated(BotsingConfiguration configuration) throws IOException {
+	private static String getTestDir(File basedir, BotsingConfiguration configuration) {
+		String testDir = configuration.getOptionValue(BotsingConfiguration.TEST_DIR_OPT);
+		if (testDir == null) {
+			testDir = "crash-reproduction-tests";
+		}
+
+		// Botsing is executed in basedir
+		return basedir.toPath().resolve(testDir).toString();
+	}
 
-		Path testDirPath = Paths.get(configuration.getOptionValue(BotsingConfiguration.TEST_DIR_OPT));
+	private static String getFrameTestDir(String testDir, int targetFrame) {
+		return testDir + "-frame-" + targetFrame;
+	}
+
+	private static boolean hasReproductionTestBeenGenerated(String testDir) throws IOException {
+
+		Path testDirPath = Paths.get(testDir);
 		if (Files.exists(testDirPath) && testDirPath.toFile().list().length > 0) {
 
-			boolean emptyTest = FileUtility.search(configuration.getOptionValue(BotsingConfiguration.TEST_DIR_OPT),
-					".*EvoSuite did not generate any tests.*", new String[] { "java" });
+			boolean emptyTest = FileUtility.search(testDir, ".*EvoSuite did not generate any tests.*",
+					new String[] { "java" });
 
 			if (!emptyTest) {
 				// generated test are NOT empty
@@ -130,6 +149,11 @@ public class ProcessRunner {
 
 	private static boolean executeJar(File basedir, File botsingReproductionJar, long timeout, List<String> properties,
 			Log log) throws InterruptedException, IOException {
+		return executeJar(basedir, botsingReproductionJar, timeout, properties, log, "");
+	}
+
+	private static boolean executeJar(File basedir, File botsingReproductionJar, long timeout, List<String> properties,
+			Log log, String outputPrefix) throws InterruptedException, IOException {
 
 		ArrayList<String> jarCommand = new ArrayList<String>();
 		jarCommand.add(JAVA_CMD);
@@ -139,11 +163,16 @@ public class ProcessRunner {
 
 		jarCommand.addAll(properties);
 
-		return ProcessRunner.executeProcess(basedir, log, timeout, jarCommand.toArray(new String[0]));
+		return ProcessRunner.executeProcess(basedir, log, timeout, outputPrefix, jarCommand.toArray(new String[0]));
 	}
 
 	private static boolean executeProcess(File workDir, Log log, long timeout, String... command)
 			throws InterruptedException, IOException {
+		return executeProcess(workDir, log, timeout, "", command);
+	}
+
+	private static boolean executeProcess(File workDir, Log log, long timeout, String outputPrefix, String... command)
+			throws InterruptedException, IOException {
 		Process process = null;
 
 		if (log.isDebugEnabled()) {
@@ -157,7 +186,7 @@ public class ProcessRunner {
 			builder.redirectErrorStream(true);
 
 			process = builder.start();
-			handleProcessOutput(process, log);
+			handleProcessOutput(process, log, outputPrefix);
 
 			boolean exitResult = process.waitFor(timeout, TimeUnit.SECONDS);
 
@@ -204,7 +233,7 @@ public class ProcessRunner {
 		return true;
 	}
 
-	private static void handleProcessOutput(final Process process, Log logger) {
+	private static void handleProcessOutput(final Process process, Log logger, String outputPrefix) {
 
 		Thread reader = new Thread() {
 			@Override
@@ -214,8 +243,12 @@ public class ProcessRunner {
 
 					while (!this.isInterrupted()) {
 						String line = in.readLine();
-						if (line != null && !line.isEmpty()) {
-							logger.info(line);
+						if (line == null) {
+							// end of the process output
+							break;
+						}
+						if (!line.isEmpty()) {
+							logger.info(outputPrefix + line);
 						}
 					}
 				} catch (Exception e) {
@@ -1,6 +1,7 @@
 package eu.stamp.botsing.setup;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.maven.plugin.logging.Log;
 
@@ -59,6 +60,38 @@ public class BotsingConfiguration extends AbstractConfiguration {
 		addDProperty(BotsingConfiguration.NO_RUNTIME_DEPENDENCY_OPT, noRuntimeDependency);
 	}
 
+	/**
+	 * @return a copy of the properties with another target frame and test
+	 *         directory, so that several frames can run at the same time
+	 */
+	public List<String> getProperties(Integer targetFrame, String testDir) {
+		List<String> result = new ArrayList<String>();
+		boolean hasTestDir = false;
+
+		for (int i = 0; i < properties.size(); i++) {
+			String property = properties.get(i);
+
+			if (property.equals("-" + TARGET_FRAME_OPT)) {
+				result.add(property);
+				result.add(targetFrame.toString());
+				i++;
+
+			} else if (property.startsWith("-D" + TEST_DIR_OPT + "=")) {
+				result.add("-D" + TEST_DIR_OPT + "=" + testDir);
+				hasTestDir = true;
+
+			} else {
+				result.add(property);
+			}
+		}
+
+		if (!hasTestDir) {
+			result.add("-D" + TEST_DIR_OPT + "=" + testDir);
+		}
+
+		return result;
+	}
+
 	public Integer getGlobalTimeout() {
 		return getOrDecreaseParameterValue(BotsingConfiguration.GLOBAL_TIMEOUT_OPT, false);
 	}
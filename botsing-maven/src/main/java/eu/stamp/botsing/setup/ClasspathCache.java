@@ -0,0 +1,174 @@
+package eu.stamp.botsing.setup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Stores the classpath resolved by Maven for a set of dependencies, so that
+ * the following executions of Botsing do not resolve the same dependency tree
+ * again. A classpath is stored with the size and the last modification time of
+ * each of its entries and of the descriptors (POM files) the resolution has
+ * read, and it is not used any more when one of them has changed in the local
+ * repository, e.g. when a SNAPSHOT POM with other dependencies is downloaded.
+ */
+public class ClasspathCache {
+
+	private static final String SEPARATOR = "\t";
+	// marks the files that are checked but are not in the classpath
+	private static final String DESCRIPTOR = "descriptor";
+
+	private final File directory;
+	private final Log log;
+
+	public ClasspathCache(File directory, Log log) {
+		this.directory = directory;
+		this.log = log;
+	}
+
+	/**
+	 * @param inputs
+	 *            everything the resolution of the classpath depends on
+	 *            (dependencies, local repository, ...)
+	 * @return the key of the classpath
+	 */
+	public static String getKey(List<String> inputs) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (String input : inputs) {
+				digest.update(input.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) '\n');
+			}
+
+			StringBuilder key = new StringBuilder();
+			for (byte b : digest.digest()) {
+				key.append(String.format("%02x", b));
+			}
+			return key.toString();
+
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	/**
+	 * @return true if the version always resolves to the same artifact, unlike
+	 *         a missing version, a version range ({@code [1.0,)}) or a meta
+	 *         version ({@code LATEST}, {@code RELEASE})
+	 */
+	public static boolean isFixedVersion(String version) {
+		return version != null && !version.isEmpty() && !version.startsWith("[") && !version.startsWith("(")
+				&& !version.contains(",") && !version.equals("LATEST") && !version.equals("RELEASE");
+	}
+
+	/**
+	 * @return the POM files next to the entries of the classpath, where a
+	 *         Maven repository keeps the descriptor of each artifact
+	 */
+	public static List<File> getDescriptors(String classpath) {
+		Set<File> descriptors = new LinkedHashSet<File>();
+		for (String entry : classpath.split(File.pathSeparator)) {
+			File directory = new File(entry).getAbsoluteFile().getParentFile();
+			if (entry.isEmpty() || directory == null) {
+				continue;
+			}
+			File[] poms = directory.listFiles((dir, name) -> name.endsWith(".pom"));
+			if (poms != null) {
+				descriptors.addAll(Arrays.asList(poms));
+			}
+		}
+		return new ArrayList<File>(descriptors);
+	}
+
+	/**
+	 * @return the classpath stored for the key, or null if there is none or one
+	 *         of its entries or descriptors has changed
+	 */
+	public String get(String key) {
+		Path file = getFile(key);
+		if (!Files.exists(file)) {
+			log.debug("No cached classpath for key " + key);
+			return null;
+		}
+
+		try {
+			String classpath = "";
+			for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+				String[] entry = line.split(SEPARATOR);
+				File dependency = new File(entry[0]);
+
+				if (!dependency.exists() || dependency.length() != Long.parseLong(entry[1])
+						|| dependency.lastModified() != Long.parseLong(entry[2])) {
+					log.info("Cached classpath is outdated, " + dependency + " has changed");
+					return null;
+				}
+
+				if (entry.length < 4 || !entry[3].equals(DESCRIPTOR)) {
+					classpath += dependency.getAbsolutePath() + File.pathSeparator;
+				}
+			}
+			return classpath;
+
+		} catch (IOException | RuntimeException e) {
+			log.warn("Cannot read cached classpath " + file + ": " + e.toString());
+			return null;
+		}
+	}
+
+	/**
+	 * Stores a classpath, its entries are separated by
+	 * {@link File#pathSeparator}
+	 */
+	public void put(String key, String classpath) {
+		put(key, classpath, new ArrayList<File>());
+	}
+
+	/**
+	 * Stores a classpath with the descriptors read to resolve it, which
+	 * invalidate the classpath when they change
+	 */
+	public void put(String key, String classpath, List<File> descriptors) {
+		List<String> lines = new ArrayList<String>();
+		for (String entry : classpath.split(File.pathSeparator)) {
+			if (!entry.isEmpty()) {
+				lines.add(getLine(new File(entry)));
+			}
+		}
+		for (File descriptor : descriptors) {
+			lines.add(getLine(descriptor) + SEPARATOR + DESCRIPTOR);
+		}
+
+		Path file = getFile(key);
+		try {
+			Files.createDirectories(file.getParent());
+
+			// write and rename, so that a concurrent build never reads a partial file
+			Path tmpFile = Files.createTempFile(file.getParent(), key, ".tmp");
+			Files.write(tmpFile, lines, StandardCharsets.UTF_8);
+			Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		} catch (IOException e) {
+			log.warn("Cannot write cached classpath " + file + ": " + e.toString());
+		}
+	}
+
+	private static String getLine(File file) {
+		return file.getAbsolutePath() + SEPARATOR + file.length() + SEPARATOR + file.lastModified();
+	}
+
+	private Path getFile(String key) {
+		return directory.toPath().resolve("classpath-" + key + ".txt");
+	}
+}
@@ -1,6 +1,8 @@
 package eu.stamp.botsing;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugin.logging.SystemStreamLog;
@@ -32,4 +34,13 @@ public class BotsingConfigurationTest {
 		Assert.assertEquals(new Integer(2), configuration.decreaseTargetFrame());
 	}
 
+	@Test
+	public void framePropertiesShouldBeACopy() throws IOException {
+		List<String> properties = configuration.getProperties(4, "tests-frame-4");
+		Assert.assertEquals(Arrays.asList("-project_cp", "bin/botsing-reproduction.jar", "-crash_log", "crash.log",
+				"-target_frame", "4", "-Dtest_dir=tests-frame-4"), properties);
+		Assert.assertEquals(new Integer(1), configuration.getTargetFrame());
+		Assert.assertNull(configuration.getOptionValue(BotsingConfiguration.TEST_DIR_OPT));
+	}
+
 }
@@ -0,0 +1,94 @@
+package eu.stamp.botsing;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import eu.stamp.botsing.setup.ClasspathCache;
+
+public class ClasspathCacheTest {
+
+	@Rule
+	public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+	private ClasspathCache cache;
+	private File first;
+	private File second;
+
+	@Before
+	public void before() throws IOException {
+		cache = new ClasspathCache(new File(tmpFolder.getRoot(), "botsing"), new SystemStreamLog());
+		first = tmpFolder.newFile("first.jar");
+		second = tmpFolder.newFile("second.jar");
+		FileUtils.writeStringToFile(first, "first", "UTF-8");
+		FileUtils.writeStringToFile(second, "second", "UTF-8");
+	}
+
+	@Test
+	public void classpathShouldBeReused() {
+		String classpath = first.getAbsolutePath() + File.pathSeparator + second.getAbsolutePath() + File.pathSeparator;
+		String key = ClasspathCache.getKey(Arrays.asList("POM", "org.example:app:jar:1.0"));
+
+		Assert.assertNull(cache.get(key));
+		cache.put(key, classpath);
+		Assert.assertEquals(classpath, cache.get(key));
+	}
+
+	@Test
+	public void changedDependencyShouldInvalidateClasspath() throws IOException {
+		String key = ClasspathCache.getKey(Arrays.asList("POM", "org.example:app:jar:1.0"));
+		cache.put(key, first.getAbsolutePath() + File.pathSeparator + second.getAbsolutePath() + File.pathSeparator);
+
+		FileUtils.writeStringToFile(second, "second, updated", "UTF-8");
+		Assert.assertNull(cache.get(key));
+	}
+
+	@Test
+	public void changedDescriptorShouldInvalidateClasspath() throws IOException {
+		File repository = tmpFolder.newFolder("repository", "org", "example", "lib", "1.0-SNAPSHOT");
+		File jar = new File(repository, "lib-1.0-SNAPSHOT.jar");
+		File pom = new File(repository, "lib-1.0-SNAPSHOT.pom");
+		FileUtils.writeStringToFile(jar, "jar", "UTF-8");
+		FileUtils.writeStringToFile(pom, "<project/>", "UTF-8");
+
+		String classpath = jar.getAbsolutePath() + File.pathSeparator;
+		String key = ClasspathCache.getKey(Arrays.asList("POM", "org.example:app:jar:1.0"));
+		Assert.assertEquals(Arrays.asList(pom), ClasspathCache.getDescriptors(classpath));
+		cache.put(key, classpath, ClasspathCache.getDescriptors(classpath));
+
+		// the descriptors are checked, but they are not in the classpath
+		Assert.assertEquals(classpath, cache.get(key));
+
+		// a new SNAPSHOT POM may have other dependencies
+		FileUtils.writeStringToFile(pom, "<project><dependencies/></project>", "UTF-8");
+		Assert.assertNull(cache.get(key));
+	}
+
+	@Test
+	public void onlyFixedVersionsShouldBeCached() {
+		Assert.assertTrue(ClasspathCache.isFixedVersion("1.0"));
+		Assert.assertTrue(ClasspathCache.isFixedVersion("1.0-SNAPSHOT"));
+		Assert.assertFalse(ClasspathCache.isFixedVersion(null));
+		Assert.assertFalse(ClasspathCache.isFixedVersion(""));
+		Assert.assertFalse(ClasspathCache.isFixedVersion("[1.0,)"));
+		Assert.assertFalse(ClasspathCache.isFixedVersion("(,2.0]"));
+		Assert.assertFalse(ClasspathCache.isFixedVersion("[1.0]"));
+		Assert.assertFalse(ClasspathCache.isFixedVersion("LATEST"));
+		Assert.assertFalse(ClasspathCache.isFixedVersion("RELEASE"));
+	}
+
+	@Test
+	public void keyShouldDependOnInputs() {
+		Assert.assertEquals(ClasspathCache.getKey(Arrays.asList("POM", "a")), ClasspathCache.getKey(Arrays.asList("POM", "a")));
+		Assert.assertNotEquals(ClasspathCache.getKey(Arrays.asList("POM", "a")), ClasspathCache.getKey(Arrays.asList("POM", "b")));
+		Assert.assertNotEquals(ClasspathCache.getKey(Arrays.asList("ab", "c")), ClasspathCache.getKey(Arrays.asList("a", "bc")));
+	}
+}
@@ -0,0 +1,98 @@
+package eu.stamp.botsing;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FrameExplorerTest {
+
+	private final Log log = new SystemStreamLog();
+
+	@Test
+	public void highestFrameShouldBePreferred() throws InterruptedException {
+		FrameExplorer explorer = new FrameExplorer(4, log);
+
+		// frame 2 reproduces first, but frame 3 reproduces too
+		int frame = explorer.explore(4, targetFrame -> {
+			if (targetFrame == 3) {
+				Thread.sleep(300);
+				return true;
+			}
+			return targetFrame == 2;
+		});
+
+		Assert.assertEquals(3, frame);
+		Assert.assertEquals(FrameExplorer.Status.NOT_REPRODUCED, explorer.getStatus(4));
+		Assert.assertEquals(FrameExplorer.Status.REPRODUCED, explorer.getStatus(3));
+		Assert.assertEquals(FrameExplorer.Status.REPRODUCED, explorer.getStatus(2));
+		Assert.assertTrue(explorer.getTime(3) >= 300);
+	}
+
+	@Test
+	public void lowerFramesShouldBeCancelled() throws InterruptedException {
+		FrameExplorer explorer = new FrameExplorer(3, log);
+		CountDownLatch started = new CountDownLatch(2);
+
+		int frame = explorer.explore(5, targetFrame -> {
+			if (targetFrame == 5) {
+				// wait for the lower frames to be running
+				started.await(10, TimeUnit.SECONDS);
+				return true;
+			}
+			started.countDown();
+			Thread.sleep(60000);
+			return true;
+		});
+
+		Assert.assertEquals(5, frame);
+		Assert.assertEquals(FrameExplorer.Status.CANCELLED, explorer.getStatus(4));
+		Assert.assertEquals(FrameExplorer.Status.CANCELLED, explorer.getStatus(3));
+		Assert.assertEquals(FrameExplorer.Status.SKIPPED, explorer.getStatus(2));
+		Assert.assertEquals(-1, explorer.getTime(1));
+	}
+
+	@Test
+	public void framesShouldNotExceedParallelism() throws InterruptedException {
+		FrameExplorer explorer = new FrameExplorer(2, log);
+		Set<Integer> running = Collections.synchronizedSet(new HashSet<Integer>());
+		int[] maxRunning = new int[1];
+
+		int frame = explorer.explore(6, targetFrame -> {
+			running.add(targetFrame);
+			synchronized (maxRunning) {
+				maxRunning[0] = Math.max(maxRunning[0], running.size());
+			}
+			Thread.sleep(50);
+			running.remove(targetFrame);
+			return false;
+		});
+
+		Assert.assertEquals(-1, frame);
+		Assert.assertEquals(2, maxRunning[0]);
+		for (int targetFrame = 6; targetFrame > 0; targetFrame--) {
+			Assert.assertEquals(FrameExplorer.Status.NOT_REPRODUCED, explorer.getStatus(targetFrame));
+		}
+	}
+
+	@Test
+	public void failedFrameShouldNotStopTheSearch() throws InterruptedException {
+		FrameExplorer explorer = new FrameExplorer(1, log);
+
+		int frame = explorer.explore(2, targetFrame -> {
+			if (targetFrame == 2) {
+				throw new IllegalStateException("Botsing crashed");
+			}
+			return true;
+		});
+
+		Assert.assertEquals(1, frame);
+		Assert.assertEquals(FrameExplorer.Status.FAILED, explorer.getStatus(2));
+	}
+}
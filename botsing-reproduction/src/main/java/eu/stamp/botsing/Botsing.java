@@ -45,6 +45,18 @@ public class Botsing {
     private static final Logger LOG = LoggerFactory.getLogger(Botsing.class);
 
     public List<TestGenerationResult> parseCommandLine(String[] args) {
+        if (setup(args)) {
+            // execute
+            return CrashReproduction.execute();
+        }
+        return null;
+    }
+
+    /**
+     * Configures Botsing with the given command line arguments.
+     * @return false if the help message is printed or a mandatory option is missing.
+     */
+    public boolean setup(String[] args) {
         // Get default properties
         CrashProperties crashProperties = CrashProperties.getInstance();
 
@@ -116,10 +128,57 @@ public class Botsing {
                 }
                 setEpsilon(commands.getOptionValue(EPSILON));
             }
-            // execute
-            return CrashReproduction.execute();
+
+            if(commands.hasOption(NOVELTY_ARCHIVE_SIZE)){
+                if(CrashProperties.searchAlgorithm!= CrashProperties.SearchAlgorithm.NoveltySearch){
+                    throw new RuntimeException("Search algorithm is not NSLC");
+                }
+                setNoveltyArchiveSize(commands.getOptionValue(NOVELTY_ARCHIVE_SIZE));
+            }
+
+            if(commands.hasOption(NOVELTY_ARCHIVE_EVICTION)){
+                if(CrashProperties.searchAlgorithm!= CrashProperties.SearchAlgorithm.NoveltySearch){
+                    throw new RuntimeException("Search algorithm is not NSLC");
+                }
+                setNoveltyArchiveEviction(commands.getOptionValue(NOVELTY_ARCHIVE_EVICTION));
+            }
+            // Evaluate the offspring in isolated workers
+            if(commands.hasOption(EVALUATION_WORKERS)){
+                setEvaluationWorkers(commands.getOptionValue(EVALUATION_WORKERS));
+            }
+            // Cache the fitness values of identical test cases
+            if(commands.hasOption(FITNESS_CACHE_SIZE)){
+                setFitnessCacheSize(commands.getOptionValue(FITNESS_CACHE_SIZE));
+            }
+            // Reuse the executions of the statements before an exception
+            if(commands.hasOption(EXECUTION_PREFIX_CACHE_SIZE)){
+                setExecutionPrefixCacheSize(commands.getOptionValue(EXECUTION_PREFIX_CACHE_SIZE));
+            }
+            // Only trace the frames of the crash
+            if(commands.hasOption(SELECTIVE_INSTRUMENTATION)){
+                CrashProperties.selectiveInstrumentation = true;
+            }
+            // Cache the instrumented bytecode across runs
+            if(commands.hasOption(BYTECODE_CACHE_DIR)){
+                CrashProperties.bytecodeCacheDir = commands.getOptionValue(BYTECODE_CACHE_DIR);
+                LOG.info("Directory of the bytecode cache set: {}.", CrashProperties.bytecodeCacheDir);
+            }
+            if(commands.hasOption(BYTECODE_CACHE_SIZE)){
+                setBytecodeCacheSize(commands.getOptionValue(BYTECODE_CACHE_SIZE));
+            }
+            // Initialize the interesting classes in batches
+            if(commands.hasOption(INSTRUMENTATION_BATCH_SIZE)){
+                setInstrumentationBatchSize(commands.getOptionValue(INSTRUMENTATION_BATCH_SIZE));
+            }
+            // Reuse the inheritance tree of an unchanged class path
+            if(commands.hasOption(DEPENDENCY_CACHE_DIR)){
+                CrashProperties.dependencyCacheDir = commands.getOptionValue(DEPENDENCY_CACHE_DIR);
+                LOG.info("Directory of the dependency analysis cache set: {}.", CrashProperties.dependencyCacheDir);
+            }
+            crashProperties.setCommandLineArguments(args);
+            return true;
         }
-        return null;
+        return false;
 
     }
 
@@ -211,6 +270,65 @@ public class Botsing {
         LOG.info("Epsilon of e-dominance set: {}.",CrashProperties.nicheFactor);
     }
 
+    private void setNoveltyArchiveSize(String noveltyArchiveSize) {
+        int size = Integer.parseInt(noveltyArchiveSize);
+        if (size < 0) {
+            throw new IllegalArgumentException("The size of the novelty archive cannot be negative");
+        }
+        CrashProperties.noveltyArchiveSize = size;
+        LOG.info("Size of the novelty archive set: {}.", CrashProperties.noveltyArchiveSize);
+    }
+
+    private void setNoveltyArchiveEviction(String eviction) {
+        CrashProperties.noveltyArchiveEviction = CrashProperties.NoveltyArchiveEviction.valueOf(eviction);
+        LOG.info("Eviction policy of the novelty archive set: {}.", CrashProperties.noveltyArchiveEviction);
+    }
+
+    private void setEvaluationWorkers(String evaluationWorkers) {
+        int workers = Integer.parseInt(evaluationWorkers);
+        if (workers < 1) {
+            throw new IllegalArgumentException("The number of evaluation workers should be at least 1");
+        }
+        CrashProperties.evaluationWorkers = workers;
+        LOG.info("Number of evaluation workers set: {}.", CrashProperties.evaluationWorkers);
+    }
+
+    private void setFitnessCacheSize(String fitnessCacheSize) {
+        int size = Integer.parseInt(fitnessCacheSize);
+        if (size < 0) {
+            throw new IllegalArgumentException("The size of the fitness cache cannot be negative");
+        }
+        CrashProperties.fitnessCacheSize = size;
+        LOG.info("Size of the fitness cache set: {}.", CrashProperties.fitnessCacheSize);
+    }
+
+    private void setExecutionPrefixCacheSize(String executionPrefixCacheSize) {
+        int size = Integer.parseInt(executionPrefixCacheSize);
+        if (size < 0) {
+            throw new IllegalArgumentException("The size of the execution prefix cache cannot be negative");
+        }
+        CrashProperties.executionPrefixCacheSize = size;
+        LOG.info("Size of the execution prefix cache set: {}.", CrashProperties.executionPrefixCacheSize);
+    }
+
+    private void setBytecodeCacheSize(String bytecodeCacheSize) {
+        int size = Integer.parseInt(bytecodeCacheSize);
+        if (size < 0) {
+            throw new IllegalArgumentException("The size of the bytecode cache cannot be negative");
+        }
+        CrashProperties.bytecodeCacheSize = size;
+        LOG.info("Size of the bytecode cache set: {} MB.", CrashProperties.bytecodeCacheSize);
+    }
+
+    private void setInstrumentationBatchSize(String instrumentationBatchSize) {
+        int size = Integer.parseInt(instrumentationBatchSize);
+        if (size < 1) {
+            throw new IllegalArgumentException("The instrumentation batch size should be at least 1");
+        }
+        CrashProperties.instrumentationBatchSize = size;
+        LOG.info("Instrumentation batch size set: {}.", CrashProperties.instrumentationBatchSize);
+    }
+
     @SuppressWarnings("checkstyle:systemexit")
     public static void main(String[] args) {
         Botsing bot = new Botsing();
@@ -38,9 +38,19 @@ public class CommandLineParameters {
     public static final String FITNESS_FUNCTION = "fitness";
     public static final String CONTINUE_AFTER_REPRODUCTION = "continue_after_reproduction";
     public static final String CRASH_SECONDARY_OBJECTIVE = "crash_secondary_objective";
+    public static final String EVALUATION_WORKERS = "evaluation_workers";
+    public static final String FITNESS_CACHE_SIZE = "fitness_cache_size";
+    public static final String EXECUTION_PREFIX_CACHE_SIZE = "execution_prefix_cache_size";
+    public static final String SELECTIVE_INSTRUMENTATION = "selective_instrumentation";
+    public static final String BYTECODE_CACHE_DIR = "bytecode_cache_dir";
+    public static final String BYTECODE_CACHE_SIZE = "bytecode_cache_size";
+    public static final String INSTRUMENTATION_BATCH_SIZE = "instrumentation_batch_size";
+    public static final String DEPENDENCY_CACHE_DIR = "dependency_cache_dir";
     //NSLC:
     public static final String NICHE_FACTOR = "niche_factor";
     public static final String EPSILON="epsilon";
+    public static final String NOVELTY_ARCHIVE_SIZE = "novelty_archive_size";
+    public static final String NOVELTY_ARCHIVE_EVICTION = "novelty_archive_eviction";
 
 
     public static Options getCommandLineOptions() {
@@ -109,6 +119,52 @@ public class CommandLineParameters {
                 .desc("Crash-related secondary search objectives")
                 .build());
 
+        // Concurrent evaluation of the offspring
+        options.addOption(Option.builder(EVALUATION_WORKERS)
+                .hasArg()
+                .desc("Number of isolated workers that evaluate the offspring concurrently, default as 1")
+                .build());
+
+        // Fitness cache
+        options.addOption(Option.builder(FITNESS_CACHE_SIZE)
+                .hasArg()
+                .desc("Number of test cases whose fitness values are cached to avoid executing identical tests, default as 0 (disabled)")
+                .build());
+
+        // Execution prefix cache
+        options.addOption(Option.builder(EXECUTION_PREFIX_CACHE_SIZE)
+                .hasArg()
+                .desc("Number of executions stopped at an exception that are reused by the tests with the same executed statements, default as 0 (disabled)")
+                .build());
+
+        // Selective instrumentation
+        options.addOption(Option.builder(SELECTIVE_INSTRUMENTATION)
+                .desc("Only trace the lines and branches of the methods of the stack trace frames (integration testing)")
+                .build());
+
+        // Bytecode cache
+        options.addOption(Option.builder(BYTECODE_CACHE_DIR)
+                .hasArg()
+                .desc("Directory where the instrumented bytecode of the untraced classes is cached across runs (selective instrumentation)")
+                .build());
+
+        options.addOption(Option.builder(BYTECODE_CACHE_SIZE)
+                .hasArg()
+                .desc("Maximum size (in MB) of the bytecode cache, default as 512")
+                .build());
+
+        // Instrumentation of the interesting classes
+        options.addOption(Option.builder(INSTRUMENTATION_BATCH_SIZE)
+                .hasArg()
+                .desc("Number of interesting classes initialized by the same test execution (integration testing), default as 1")
+                .build());
+
+        // Dependency analysis cache
+        options.addOption(Option.builder(DEPENDENCY_CACHE_DIR)
+                .hasArg()
+                .desc("Directory where the inheritance tree of an unchanged project class path is reused across runs")
+                .build());
+
         // Novelty Search
         options.addOption(Option.builder(NICHE_FACTOR)
                 .hasArg()
@@ -120,6 +176,16 @@ public class CommandLineParameters {
                 .desc("Epsilon of e-dominance in novelty search with local competition, default as 0.3")
                 .build());
 
+        options.addOption(Option.builder(NOVELTY_ARCHIVE_SIZE)
+                .hasArg()
+                .desc("Maximum number of behaviours kept in the novelty archive across generations, default as 0 (disabled)")
+                .build());
+
+        options.addOption(Option.builder(NOVELTY_ARCHIVE_EVICTION)
+                .hasArg()
+                .desc("Eviction policy of the novelty archive: OLDEST (default), LEAST_NOVEL, RANDOM or CROWDING")
+                .build());
+
 
 
         return options;
@@ -45,6 +45,7 @@ public class CrashProperties {
     private static CrashProperties instance = null;
     private List<StackTrace> crashes = new ArrayList<>();
     private String[] projectClassPaths;
+    private String[] commandLineArguments = new String[0];
 
 
     @Retention(RetentionPolicy.RUNTIME)
@@ -125,9 +126,33 @@ public class CrashProperties {
     @Parameter(key = "max_target_injection_tries", group = "Runtime", description = "The maximum number of times the search tries to generate an individuals with the target method.")
     public static int max_target_injection_tries = 150;
 
+    @Parameter(key = "evaluation_workers", group = "Runtime", description = "Number of isolated workers that evaluate the offspring of each generation concurrently. 1 evaluates them on the search thread. Each worker is a child JVM.")
+    public static int evaluationWorkers = 1;
+
+    @Parameter(key = "fitness_cache_size", group = "Runtime", description = "Maximum number of test cases whose fitness values are cached, so that identical test cases are not executed again. 0 disables the cache.")
+    public static int fitnessCacheSize = 0;
+
+    @Parameter(key = "execution_prefix_cache_size", group = "Runtime", description = "Maximum number of executions that stopped at an exception which are cached, so that the test cases that only differ after the exception are not executed again. 0 disables the cache.")
+    public static int executionPrefixCacheSize = 0;
+
 
     @Parameter(key = "integration_testing", group = "Crash reproduction", description = "Use integration testing for reproduce the crash.")
     public static boolean integrationTesting = false;
+
+    @Parameter(key = "selective_instrumentation", group = "Crash reproduction", description = "Only trace the execution of the methods of the stack trace frames in integration testing. The other methods only trace their calls, without their lines and branches.")
+    public static boolean selectiveInstrumentation = false;
+
+    @Parameter(key = "bytecode_cache_dir", group = "Crash reproduction", description = "Directory where the instrumented bytecode of the classes that are not traced by the selective instrumentation is cached across runs. Empty disables the cache.")
+    public static String bytecodeCacheDir = "";
+
+    @Parameter(key = "bytecode_cache_size", group = "Crash reproduction", description = "Maximum size (in MB) of the bytecode cache. The least recently used classes are removed first.")
+    public static int bytecodeCacheSize = 512;
+
+    @Parameter(key = "instrumentation_batch_size", group = "Crash reproduction", description = "Maximum number of interesting classes that are initialized by the same test execution in integration testing.")
+    public static int instrumentationBatchSize = 1;
+
+    @Parameter(key = "dependency_cache_dir", group = "Crash reproduction", description = "Directory where the inheritance tree of the project class path is stored, so that the runs on an unchanged class path do not build it again. Empty disables the cache.")
+    public static String dependencyCacheDir = "";
     @Parameter(key = "line_estimation", group = "Crash reproduction", description = "Detect Missing lines in the stack trace")
     public static boolean lineEstimation = true;
 
@@ -156,6 +181,25 @@ public class CrashProperties {
     @Parameter(key = "epsilon",group = "NSLC",description = "epsilon in NSLC")
     public static double epsilon=0.3;
 
+    @Parameter(key = "parallel_distance_calculation", group = "NSLC", description = "Calculate the pairwise distances of each NSLC generation in parallel")
+    public static boolean parallelDistanceCalculation = false;
+
+    @Parameter(key = "novelty_index", group = "NSLC", description = "Answer the NSLC neighbour queries with a BK-tree over call signatures instead of a full distance matrix")
+    public static boolean noveltyIndex = false;
+
+    public enum NoveltyArchiveEviction {
+        OLDEST, // First in, first out (default)
+        LEAST_NOVEL, // The behaviour with the lowest novelty when it was added
+        RANDOM,
+        CROWDING // One of the two closest behaviours
+    }
+
+    @Parameter(key = "novelty_archive_size", group = "NSLC", description = "Maximum number of behaviours kept in the NSLC novelty archive across generations (0 disables it)")
+    public static int noveltyArchiveSize = 0;
+
+    @Parameter(key = "novelty_archive_eviction", group = "NSLC", description = "Policy that selects the behaviour evicted from a full NSLC novelty archive")
+    public static NoveltyArchiveEviction noveltyArchiveEviction = NoveltyArchiveEviction.OLDEST;
+
 
     public enum DistanceCalculator {
         WS, // Weighted Sum
@@ -279,6 +323,18 @@ public class CrashProperties {
         return projectClassPaths;
     }
 
+    public void setCommandLineArguments(String[] commandLineArguments) {
+        this.commandLineArguments = commandLineArguments.clone();
+    }
+
+    /**
+     * Returns the command line arguments Botsing has been configured with. The isolated evaluation workers replay them
+     * to set themselves up like the search.
+     */
+    public String[] getCommandLineArguments() {
+        return commandLineArguments.clone();
+    }
+
     public StackTrace getStackTrace(int index) {
         if(crashes.size() <= index){
             throw new IndexOutOfBoundsException("The given index for crashes is out of bounds");
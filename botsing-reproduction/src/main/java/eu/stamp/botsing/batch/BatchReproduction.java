@@ -0,0 +1,302 @@
+package eu.stamp.botsing.batch;
+
+import eu.stamp.botsing.CommandLineParameters;
+import eu.stamp.botsing.daemon.BotsingDaemon;
+import eu.stamp.botsing.daemon.ForkedJobRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reproduces a backlog of crashes with a single command. The crashes are the {@code .log} files of a directory, or the
+ * lines of a manifest: {@code <log file> [<target frame> [<search budget>]]}, relative to the manifest. Each crash is a
+ * job with the command line of the batch, and the jobs are scheduled on a number of workers. Every job runs in its own
+ * child JVM ({@link ForkedJobRunner}), whatever the number of workers, so the crashes do not share anything in memory:
+ * what they share is the dependency analysis cache of the batch on disk, and the bytecode cache for the jobs with the
+ * selective instrumentation. Each crash writes its tests in its own directory. A results index (status, time and
+ * fitness evaluations of each crash) is written at the end.
+ */
+public class BatchReproduction {
+    private static final Logger LOG = LoggerFactory.getLogger(BatchReproduction.class);
+
+    static final String CRASHES_OPT = "-crashes";
+    static final String WORKERS_OPT = "-workers";
+    static final String RESULTS_OPT = "-results";
+    static final String CACHE_DIR_OPT = "-cache_dir";
+
+    private static final String TEST_DIR_PROPERTY = "-Dtest_dir=";
+    private static final String DEFAULT_TEST_DIR = "crash-reproduction-tests";
+
+    /**
+     * Runs the job of a crash.
+     */
+    interface Runner {
+        ForkedJobRunner.Outcome run(String[] args) throws Exception;
+    }
+
+    public enum Status {
+        REPRODUCED, NOT_REPRODUCED, ERROR
+    }
+
+    private final String[] baseArgs;
+    private final int workers;
+    private final Path cacheDirectory;
+    private final Path testDirectory;
+    private final Runner runner;
+
+    /**
+     * @param baseArgs command line of Botsing shared by the crashes, without the crash log.
+     */
+    public BatchReproduction(String[] baseArgs, int workers, Path cacheDirectory) {
+        this(baseArgs, workers, cacheDirectory, new ForkedJobRunner()::runJob);
+    }
+
+    BatchReproduction(String[] baseArgs, int workers, Path cacheDirectory, Runner runner) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("The number of workers should be at least 1");
+        }
+        this.baseArgs = baseArgs;
+        this.workers = workers;
+        this.cacheDirectory = cacheDirectory;
+        this.runner = runner;
+        this.testDirectory = Paths.get(Arrays.stream(baseArgs).filter(arg -> arg.startsWith(TEST_DIR_PROPERTY))
+                .reduce((first, second) -> second).map(arg -> arg.substring(TEST_DIR_PROPERTY.length()))
+                .orElse(DEFAULT_TEST_DIR));
+    }
+
+    public Path getTestDirectory() {
+        return testDirectory;
+    }
+
+    /**
+     * Reproduces the crashes, and returns their results in the same order.
+     */
+    public List<Result> run(List<Crash> crashes) {
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> new Thread(runnable, "botsing-batch-worker"));
+        try {
+            List<Future<Result>> results = new ArrayList<>();
+            for (Crash crash : crashes) {
+                results.add(executor.submit(() -> reproduce(crash)));
+            }
+            List<Result> done = new ArrayList<>();
+            for (int index = 0; index < crashes.size(); index++) {
+                try {
+                    done.add(results.get(index).get());
+                } catch (ExecutionException e) {
+                    done.add(new Result(crashes.get(index), Status.ERROR, 0, 0));
+                }
+            }
+            return done;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The batch is interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Result reproduce(Crash crash) {
+        LOG.info("Reproducing {} (frame {})", crash.getLogFile(), crash.getTargetFrame());
+        long start = System.currentTimeMillis();
+        try {
+            ForkedJobRunner.Outcome outcome = runner.run(argsOf(crash));
+            Status status = outcome.isReproduced() ? Status.REPRODUCED : Status.NOT_REPRODUCED;
+            Result result = new Result(crash, status, System.currentTimeMillis() - start, outcome.getEvaluations());
+            LOG.info("{} {} in {} ms", crash.getLogFile(), status, result.getTime());
+            return result;
+        } catch (Exception e) {
+            LOG.error("Error in the reproduction of {}", crash.getLogFile(), e);
+            return new Result(crash, Status.ERROR, System.currentTimeMillis() - start, 0);
+        }
+    }
+
+    // Command line of the crash: the later values of the properties override those of the batch
+    String[] argsOf(Crash crash) {
+        List<String> args = new ArrayList<>();
+        for (int index = 0; index < baseArgs.length; index++) {
+            String arg = baseArgs[index];
+            if (arg.equals("-" + CommandLineParameters.CRASH_LOG_OPT) || arg.equals("-" + CommandLineParameters.TARGET_FRAME_OPT)) {
+                index++;
+                continue;
+            }
+            args.add(arg);
+        }
+        args.add("-" + CommandLineParameters.CRASH_LOG_OPT);
+        args.add(crash.getLogFile().toString());
+        args.add("-" + CommandLineParameters.TARGET_FRAME_OPT);
+        args.add(String.valueOf(crash.getTargetFrame()));
+        args.add(TEST_DIR_PROPERTY + testDirectory.resolve(crash.getName()));
+        if (crash.getSearchBudget() > 0) {
+            args.add("-Dsearch_budget=" + crash.getSearchBudget());
+        }
+        return BotsingDaemon.withCaches(args.toArray(new String[0]), cacheDirectory);
+    }
+
+    /**
+     * Reads the crashes of a directory of logs or of a manifest.
+     * @param targetFrame target frame of the crashes that do not have their own.
+     */
+    public static List<Crash> readCrashes(Path crashes, int targetFrame) throws IOException {
+        if (Files.isDirectory(crashes)) {
+            try (Stream<Path> logs = Files.list(crashes)) {
+                return logs.filter(log -> log.getFileName().toString().endsWith(".log"))
+                        .sorted()
+                        .map(log -> new Crash(log, targetFrame, 0))
+                        .collect(Collectors.toList());
+            }
+        }
+        List<Crash> manifest = new ArrayList<>();
+        Path base = crashes.toAbsolutePath().getParent();
+        for (String line : Files.readAllLines(crashes, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\\s+");
+            Path log = base.resolve(columns[0]);
+            int frame = columns.length > 1 ? Integer.parseInt(columns[1]) : targetFrame;
+            long budget = columns.length > 2 ? Long.parseLong(columns[2]) : 0;
+            manifest.add(new Crash(log, frame, budget));
+        }
+        return manifest;
+    }
+
+    public static void writeResults(List<Result> results, Path file) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("crash,target_frame,status,time_ms,evaluations");
+            for (Result result : results) {
+                out.println(String.join(",", result.getCrash().getLogFile().toString(),
+                        String.valueOf(result.getCrash().getTargetFrame()), result.getStatus().name(),
+                        String.valueOf(result.getTime()), String.valueOf(result.getEvaluations())));
+            }
+        }
+    }
+
+    public static class Crash {
+        private final Path logFile;
+        private final int targetFrame;
+        // in the unit of the stopping condition, 0 for the budget of the batch
+        private final long searchBudget;
+
+        public Crash(Path logFile, int targetFrame, long searchBudget) {
+            this.logFile = logFile;
+            this.targetFrame = targetFrame;
+            this.searchBudget = searchBudget;
+        }
+
+        public Path getLogFile() {
+            return logFile;
+        }
+
+        public int getTargetFrame() {
+            return targetFrame;
+        }
+
+        public long getSearchBudget() {
+            return searchBudget;
+        }
+
+        // Name of the directory of the tests of the crash
+        String getName() {
+            String name = logFile.getFileName().toString();
+            return (name.endsWith(".log") ? name.substring(0, name.length() - ".log".length()) : name) + "-" + targetFrame;
+        }
+    }
+
+    public static class Result {
+        private final Crash crash;
+        private final Status status;
+        private final long time;
+        private final long evaluations;
+
+        public Result(Crash crash, Status status, long time, long evaluations) {
+            this.crash = crash;
+            this.status = status;
+            this.time = time;
+            this.evaluations = evaluations;
+        }
+
+        public Crash getCrash() {
+            return crash;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return time of the reproduction, in milliseconds.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        public long getEvaluations() {
+            return evaluations;
+        }
+    }
+
+    /**
+     * Takes the options of the batch ({@code -crashes}, {@code -workers}, {@code -results}, {@code -cache_dir}) and the
+     * command line of Botsing shared by the crashes, whose {@code -target_frame} is the default target frame.
+     */
+    @SuppressWarnings("checkstyle:systemexit")
+    public static void main(String[] args) throws IOException {
+        Path crashes = null;
+        int workers = 1;
+        Path results = null;
+        Path cacheDirectory = Paths.get(System.getProperty("user.home"), ".botsing", "cache");
+        int targetFrame = 1;
+        List<String> baseArgs = new ArrayList<>();
+        for (int index = 0; index < args.length; index++) {
+            String option = args[index];
+            boolean hasValue = index + 1 < args.length;
+            if (option.equals(CRASHES_OPT) && hasValue) {
+                crashes = Paths.get(args[++index]);
+            } else if (option.equals(WORKERS_OPT) && hasValue) {
+                workers = Integer.parseInt(args[++index]);
+            } else if (option.equals(RESULTS_OPT) && hasValue) {
+                results = Paths.get(args[++index]);
+            } else if (option.equals(CACHE_DIR_OPT) && hasValue) {
+                cacheDirectory = Paths.get(args[++index]);
+            } else {
+                if (option.equals("-" + CommandLineParameters.TARGET_FRAME_OPT) && hasValue) {
+                    targetFrame = Integer.parseInt(args[index + 1]);
+                }
+                baseArgs.add(option);
+            }
+        }
+        if (crashes == null) {
+            LOG.error("The option {} (directory of crash logs or manifest) is missing!", CRASHES_OPT);
+            System.exit(1);
+        }
+
+        BatchReproduction batch = new BatchReproduction(baseArgs.toArray(new String[0]), workers, cacheDirectory);
+        List<Result> done = batch.run(readCrashes(crashes, targetFrame));
+        if (results == null) {
+            results = batch.getTestDirectory().resolve("results.csv");
+        }
+        writeResults(done, results);
+        LOG.info("{} of {} crashes reproduced, results written to {}",
+                done.stream().filter(result -> result.getStatus() == Status.REPRODUCED).count(), done.size(), results);
+        System.exit(0);
+    }
+}
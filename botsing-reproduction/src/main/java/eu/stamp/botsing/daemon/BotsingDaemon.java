@@ -0,0 +1,266 @@
+package eu.stamp.botsing.daemon;
+
+import eu.stamp.botsing.CommandLineParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Long-lived local process that queues crash reproduction jobs. The daemon listens on a port of the loopback
+ * interface. A job is the command line of {@link eu.stamp.botsing.Botsing}, sent by a {@link BotsingDaemonClient}. The
+ * jobs are run one at a time, each one in its own child JVM ({@link ForkedJobRunner}). Only the user who started the
+ * daemon can submit jobs: the daemon writes a random token to a file of its cache directory that only this user can
+ * read, and rejects the requests that do not start with it.
+ * <p>
+ * Nothing is shared in memory across the jobs: the classes of Botsing, EvoSuite and the project are loaded,
+ * instrumented and compiled again by each job. What the jobs share are the disk caches that the daemon gives to each
+ * job in its cache directory, unless the job has its own. The dependency analysis cache serves every job. The bytecode
+ * cache only keeps the classes that the selective instrumentation ({@code -selective_instrumentation}, integration
+ * testing only) leaves untraced: with the default settings, no instrumented class is reused. A run of Botsing with
+ * {@code -dependency_cache_dir} and {@code -bytecode_cache_dir} gets the same caches without the daemon.
+ */
+public class BotsingDaemon {
+    private static final Logger LOG = LoggerFactory.getLogger(BotsingDaemon.class);
+
+    public static final int DEFAULT_PORT = 7431;
+
+    // Protocol: the token of the daemon, a request line, then the arguments of the job (one per line) and an empty line
+    static final String JOB = "JOB";
+    static final String SHUTDOWN = "SHUTDOWN";
+    static final String OK = "OK";
+    static final String FAILED = "FAILED";
+    static final String ERROR = "ERROR";
+
+    private final ServerSocket serverSocket;
+    private final Path cacheDirectory;
+    private final JobRunner runner;
+    private final String token;
+    private final Path tokenFile;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "botsing-daemon-connection");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService jobs = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "botsing-daemon-job"));
+    private volatile boolean running = true;
+
+    /**
+     * Runs a job, and tells whether it reproduced the crash.
+     */
+    public interface JobRunner {
+        boolean run(String[] args) throws Exception;
+    }
+
+    public BotsingDaemon(int port, Path cacheDirectory) throws IOException {
+        this(port, cacheDirectory, new ForkedJobRunner());
+    }
+
+    BotsingDaemon(int port, Path cacheDirectory, JobRunner runner) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.cacheDirectory = cacheDirectory;
+        this.runner = runner;
+        this.token = newToken();
+        this.tokenFile = getTokenFile(cacheDirectory, getPort());
+        try {
+            writeToken(token, tokenFile);
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the file of the token of the daemon listening on the given port.
+     */
+    public static Path getTokenFile(Path cacheDirectory, int port) {
+        return cacheDirectory.resolve("daemon-" + port + ".token");
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        StringBuilder token = new StringBuilder();
+        for (byte b : bytes) {
+            token.append(String.format("%02x", b));
+        }
+        return token.toString();
+    }
+
+    // Writes the token to a file that only the owner can read, renamed once complete
+    private static void writeToken(String token, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmpFile;
+        if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            tmpFile = Files.createTempFile(file.getParent(), "daemon", ".tmp",
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            tmpFile = Files.createTempFile(file.getParent(), "daemon", ".tmp");
+            File tmp = tmpFile.toFile();
+            if (!(tmp.setReadable(false, false) && tmp.setReadable(true, true)
+                    && tmp.setWritable(false, false) && tmp.setWritable(true, true))) {
+                LOG.warn("The permissions of {} could not be restricted to its owner", file);
+            }
+        }
+        Files.write(tmpFile, token.getBytes(StandardCharsets.UTF_8));
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the daemon is shut down.
+     */
+    public void serve() {
+        LOG.info("Botsing daemon listening on port {}", getPort());
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.submit(() -> handle(socket));
+            } catch (SocketException e) {
+                // The server socket is closed by the shutdown
+                break;
+            } catch (IOException e) {
+                LOG.warn("Connection could not be accepted: {}", e.getMessage());
+            }
+        }
+        connections.shutdownNow();
+        jobs.shutdown();
+        try {
+            Files.deleteIfExists(tokenFile);
+        } catch (IOException e) {
+            LOG.debug("Token file could not be deleted: {}", e.getMessage());
+        }
+        LOG.info("Botsing daemon stopped");
+    }
+
+    public void shutdown() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            LOG.debug("Server socket could not be closed: {}", e.getMessage());
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket connection = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            if (!isAuthorized(in.readLine())) {
+                LOG.warn("Request without the token of the daemon rejected");
+                out.println(ERROR + " unauthorized");
+                return;
+            }
+            String request = in.readLine();
+            if (SHUTDOWN.equals(request)) {
+                out.println(OK);
+                shutdown();
+                return;
+            }
+            if (!JOB.equals(request)) {
+                out.println(ERROR + " unknown request " + request);
+                return;
+            }
+            List<String> args = new ArrayList<>();
+            for (String line = in.readLine(); line != null && !line.isEmpty(); line = in.readLine()) {
+                args.add(line);
+            }
+            out.println(submit(args.toArray(new String[0])));
+        } catch (IOException e) {
+            LOG.warn("Connection failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean isAuthorized(String requestToken) {
+        return requestToken != null && MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                requestToken.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Runs the job after the previous ones, and returns the response of the protocol
+    String submit(String[] args) {
+        String[] jobArgs = withCaches(args);
+        Future<Boolean> job = jobs.submit(() -> {
+            LOG.info("Running job {}", Arrays.toString(jobArgs));
+            long start = System.currentTimeMillis();
+            boolean result = runner.run(jobArgs);
+            LOG.info("Job done in {} ms", System.currentTimeMillis() - start);
+            return result;
+        });
+        try {
+            return job.get() ? OK : FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ERROR + " interrupted";
+        } catch (ExecutionException e) {
+            LOG.warn("Job failed", e.getCause());
+            return ERROR + " " + e.getCause();
+        }
+    }
+
+    // Adds the caches of the daemon to the arguments of a job that does not have its own
+    String[] withCaches(String[] args) {
+        return withCaches(args, cacheDirectory);
+    }
+
+    /**
+     * Adds a bytecode cache and a dependency analysis cache in the given directory to the arguments of a job that does
+     * not have its own. The bytecode cache is only used by the jobs with the selective instrumentation.
+     */
+    public static String[] withCaches(String[] args, Path cacheDirectory) {
+        List<String> jobArgs = new ArrayList<>(Arrays.asList(args));
+        addOption(jobArgs, CommandLineParameters.BYTECODE_CACHE_DIR, cacheDirectory.resolve("bytecode"));
+        addOption(jobArgs, CommandLineParameters.DEPENDENCY_CACHE_DIR, cacheDirectory.resolve("dependencies"));
+        return jobArgs.toArray(new String[0]);
+    }
+
+    private static void addOption(List<String> args, String option, Path value) {
+        if (!args.contains("-" + option)) {
+            args.add("-" + option);
+            args.add(value.toString());
+        }
+    }
+
+    @SuppressWarnings("checkstyle:systemexit")
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        Path cacheDirectory = Paths.get(System.getProperty("user.home"), ".botsing", "cache");
+        for (int index = 0; index + 1 < args.length; index += 2) {
+            if ("-port".equals(args[index])) {
+                port = Integer.parseInt(args[index + 1]);
+            } else if ("-cache_dir".equals(args[index])) {
+                cacheDirectory = Paths.get(args[index + 1]);
+            } else {
+                throw new IllegalArgumentException("Unknown option " + args[index]);
+            }
+        }
+        new BotsingDaemon(port, cacheDirectory).serve();
+        System.exit(0);
+    }
+}
@@ -0,0 +1,86 @@
+package eu.stamp.botsing.daemon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Sends a crash reproduction job to a running {@link BotsingDaemon}, and waits for it. The arguments are those of
+ * {@link eu.stamp.botsing.Botsing}, optionally preceded by {@code -port <port>} to reach a daemon that is not on the
+ * default port and by {@code -cache_dir <directory>} when the daemon does not use the default cache directory, where
+ * the client reads the token of the daemon. {@code -shutdown} stops the daemon instead.
+ */
+public class BotsingDaemonClient {
+
+    private final int port;
+    private final String token;
+
+    public BotsingDaemonClient(int port, String token) {
+        this.port = port;
+        this.token = token;
+    }
+
+    /**
+     * @return the token of the daemon listening on the given port, written in its cache directory.
+     */
+    public static String readToken(Path cacheDirectory, int port) throws IOException {
+        return new String(Files.readAllBytes(BotsingDaemon.getTokenFile(cacheDirectory, port)), StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * @return the response of the daemon: OK when the job reproduced the crash, FAILED when it did not, or ERROR and
+     * its cause.
+     */
+    public String submit(String[] args) throws IOException {
+        return send(BotsingDaemon.JOB, args);
+    }
+
+    public String shutdown() throws IOException {
+        return send(BotsingDaemon.SHUTDOWN, new String[0]);
+    }
+
+    private String send(String request, String[] args) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            out.println(token);
+            out.println(request);
+            for (String arg : args) {
+                if (arg.isEmpty() || arg.contains("\n")) {
+                    throw new IllegalArgumentException("The arguments of a job cannot be empty or span several lines");
+                }
+                out.println(arg);
+            }
+            out.println();
+            String response = in.readLine();
+            return response == null ? BotsingDaemon.ERROR + " no response" : response;
+        }
+    }
+
+    @SuppressWarnings("checkstyle:systemexit")
+    public static void main(String[] args) throws IOException {
+        int port = BotsingDaemon.DEFAULT_PORT;
+        Path cacheDirectory = Paths.get(System.getProperty("user.home"), ".botsing", "cache");
+        if (args.length >= 2 && "-port".equals(args[0])) {
+            port = Integer.parseInt(args[1]);
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
+        if (args.length >= 2 && "-cache_dir".equals(args[0])) {
+            cacheDirectory = Paths.get(args[1]);
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
+        BotsingDaemonClient client = new BotsingDaemonClient(port, readToken(cacheDirectory, port));
+        String response = args.length == 1 && "-shutdown".equals(args[0]) ? client.shutdown() : client.submit(args);
+        System.out.println(response);
+        System.exit(BotsingDaemon.OK.equals(response) ? 0 : 1);
+    }
+}
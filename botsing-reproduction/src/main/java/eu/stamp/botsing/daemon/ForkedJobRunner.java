@@ -0,0 +1,117 @@
+package eu.stamp.botsing.daemon;
+
+import eu.stamp.botsing.Botsing;
+import eu.stamp.botsing.reproduction.CrashReproduction;
+import org.evosuite.ga.stoppingconditions.MaxFitnessEvaluationsStoppingCondition;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs each job in a child JVM over the class path of Botsing. A class loader does not isolate what EvoSuite changes
+ * for the whole process (the security manager of the sandbox, the redirection of {@code System.out} and
+ * {@code System.err}, the system properties, and the threads stopped after each test execution), and the threads that
+ * a job leaves behind would keep its classes alive. Hence, a job does not share any state in memory with the process
+ * that runs it or with the other jobs. The child writes the outcome of the job to a file.
+ */
+public class ForkedJobRunner implements BotsingDaemon.JobRunner {
+
+    private final String mainClass;
+
+    public ForkedJobRunner() {
+        this(ForkedJobRunner.class.getName());
+    }
+
+    // The main class takes the outcome file, then the arguments of the job
+    ForkedJobRunner(String mainClass) {
+        this.mainClass = mainClass;
+    }
+
+    @Override
+    public boolean run(String[] args) throws Exception {
+        return runJob(args).isReproduced();
+    }
+
+    public Outcome runJob(String[] args) throws Exception {
+        Path outcome = Files.createTempFile("botsing-outcome", ".txt");
+        try {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(mainClass);
+            command.add(outcome.toString());
+            command.addAll(Arrays.asList(args));
+            Process process = new ProcessBuilder(command).inheritIO().start();
+            try {
+                int exitValue = process.waitFor();
+                if (exitValue != 0) {
+                    throw new IllegalStateException("The job exited with " + exitValue);
+                }
+            } finally {
+                // The caller is interrupted, or the job is done
+                process.destroyForcibly();
+            }
+            return readOutcome(outcome);
+        } finally {
+            Files.deleteIfExists(outcome);
+        }
+    }
+
+    static void writeOutcome(Path file, Outcome outcome) throws IOException {
+        Files.write(file, Collections.singletonList(outcome.isReproduced() + " " + outcome.getEvaluations()),
+                StandardCharsets.UTF_8);
+    }
+
+    static Outcome readOutcome(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.isEmpty()) {
+            throw new IllegalStateException("The job did not write its outcome");
+        }
+        String[] outcome = lines.get(0).split(" ");
+        return new Outcome(Boolean.parseBoolean(outcome[0]), Long.parseLong(outcome[1]));
+    }
+
+    @SuppressWarnings("checkstyle:systemexit")
+    public static void main(String[] args) throws IOException {
+        Outcome outcome;
+        if (new Botsing().parseCommandLine(Arrays.copyOfRange(args, 1, args.length)) == null) {
+            // The arguments are not those of a crash reproduction
+            outcome = new Outcome(false, 0);
+        } else {
+            outcome = new Outcome(CrashReproduction.getNumberOfReproducingTests() > 0,
+                    MaxFitnessEvaluationsStoppingCondition.getNumFitnessEvaluations());
+        }
+        writeOutcome(Paths.get(args[0]), outcome);
+        // EvoSuite may leave non-daemon threads behind
+        System.exit(0);
+    }
+
+    /**
+     * What a job reports once its search is over.
+     */
+    public static class Outcome {
+        private final boolean reproduced;
+        private final long evaluations;
+
+        public Outcome(boolean reproduced, long evaluations) {
+            this.reproduced = reproduced;
+            this.evaluations = evaluations;
+        }
+
+        public boolean isReproduced() {
+            return reproduced;
+        }
+
+        public long getEvaluations() {
+            return evaluations;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package eu.stamp.botsing.fitnessfunction;
 
 import eu.stamp.botsing.StackTrace;
 import eu.stamp.botsing.fitnessfunction.calculator.EuclideanDistance;
+import eu.stamp.botsing.fitnessfunction.calculator.diversity.CallSignature;
 import eu.stamp.botsing.fitnessfunction.calculator.diversity.HammingDiversity;
 import org.evosuite.ga.Chromosome;
 
@@ -23,6 +24,11 @@ public class NoveltyFunction<T extends Chromosome> extends org.evosuite.ga.Novel
         return EuclideanDistance.getInstance(targetTrace).getEuclideanDistance(var1,var2);
     }
 
+    public CallSignature getCallSignature(T individual){
+        // the euclidean distance of two chromosomes is the square root of the hamming distance of their signatures
+        return EuclideanDistance.getInstance(targetTrace).getCallSignature(individual);
+    }
+
     public double getNovelty(T individual, Collection<T> population) {
         double distance = 0.0;
 
@@ -43,10 +43,16 @@ public class CrashCoverageFitnessCalculator {
 
     private static final Logger LOG = LoggerFactory.getLogger(CrashCoverageFitnessCalculator.class);
 
+    // Sorted control dependency goals of the target lines, shared by all the calculators. They are only valid for
+    // the class loader that loaded the instrumented classes.
+    private static final Map<String, List<BranchCoverageTestFitness>> controlDependencyGoals = new HashMap<>();
+    private static ClassLoader controlDependencyGoalsLoader = null;
+
     private StackTrace targetCrash;
     LinkedList<LinkedList<Integer>> tracking = new LinkedList();
     int irrelevantFrameCounter=0;
     int firstLineSpecialCallers=0;
+    private FrameMatcher frameMatcher = null;
 
     public CrashCoverageFitnessCalculator(StackTrace crash){
         targetCrash = crash;
@@ -92,10 +98,11 @@ public class CrashCoverageFitnessCalculator {
 
     protected boolean findMethodCallsInDepth(ExecutionResult result, String methodName,int lineNumber, int callDepth) {
         boolean found = false;
-        List<MethodCall> callChains = new ArrayList<>(result.getTrace().getMethodCalls());
-        callChains.addAll(result.getTrace().getUnfinishedCalls());
-        for(MethodCall call: callChains){
-            if(call.callDepth == callDepth && call.methodName.equals(methodName) && call.lineTrace.contains(lineNumber)){
+        if(methodName == null){
+            return false;
+        }
+        for(MethodCall call: MethodCallIndex.of(result).getCalls(methodName, callDepth)){
+            if(call.lineTrace.contains(lineNumber)){
                 // Check the caller method id
 
                 // If we are in the first level the level of the caller is always 0
@@ -140,11 +147,9 @@ public class CrashCoverageFitnessCalculator {
     private double calculateBranchDistanceAndApproachLevel(ExecutionResult result) {
         // Get the target frame
         StackTraceElement targetFrame = this.targetCrash.getFrame(targetCrash.getNumberOfFrames());
-        // Get the target method name
-        String methodName = TestGenerationContextUtility.derivingMethodFromBytecode(CrashProperties.integrationTesting,targetFrame.getClassName(), targetFrame.getLineNumber());
 
         // get control dependent branches
-        List<BranchCoverageTestFitness> branchFitnesses = setupDependencies(targetFrame.getClassName(), methodName, targetFrame.getLineNumber());
+        List<BranchCoverageTestFitness> branchFitnesses = getControlDependencyGoals(targetFrame);
 
         double lineCoverageFitness = Double.MAX_VALUE;
         // Indicate minimum distance
@@ -160,11 +165,9 @@ public class CrashCoverageFitnessCalculator {
     private double computeBasicBlockDistance(ExecutionResult result) {
         // Get the target frame
         StackTraceElement targetFrame = this.targetCrash.getFrame(targetCrash.getNumberOfFrames());
-        // Get the target method name
-        String methodName = TestGenerationContextUtility.derivingMethodFromBytecode(CrashProperties.integrationTesting,targetFrame.getClassName(), targetFrame.getLineNumber());
 
         // get control dependent branches
-        List<BranchCoverageTestFitness> branchFitnesses = setupDependencies(targetFrame.getClassName(), methodName, targetFrame.getLineNumber());
+        List<BranchCoverageTestFitness> branchFitnesses = getControlDependencyGoals(targetFrame);
 
 
         return Double.MAX_VALUE;
@@ -190,30 +193,11 @@ public class CrashCoverageFitnessCalculator {
     }
 
     protected double calculateFrameSimilarity(StackTraceElement[] trace, StackTrace targetTrace) {
-        int startPoint = 0;
-        double result = 0.0;
-        //iterating on the target stack trace
-
-        int numberOfFrames = targetTrace.getNumberOfFrames();
-        for (int frame_level=1;frame_level<=numberOfFrames;frame_level++){
-            if (!targetTrace.getFrame(frame_level).getClassName().contains("reflect") && !targetTrace.getFrame(frame_level).getClassName().contains("invoke")){
-                // Check the selected frame from target stack trace on The generated stack trace frames
-                StackTraceElement selectedFrame = targetTrace.getFrame(frame_level);
-                double minDistance=1;
-                for (int pos = startPoint ; pos < trace.length; pos++){
-                    StackTraceElement frameOfGeneratedTrace = trace[pos];
-                    if (!frameOfGeneratedTrace.getClassName().contains("evosuite")){
-                        double tempDist = getFrameDistance(selectedFrame, frameOfGeneratedTrace) ;
-                        if (tempDist < minDistance){
-                            minDistance = tempDist;
-                            startPoint = pos;
-                        }
-                    }
-                }
-                result += minDistance;
-            }
+        //iterating on the target stack trace, compiled once into int frames
+        if (frameMatcher == null || frameMatcher.getTarget() != targetTrace) {
+            frameMatcher = new FrameMatcher(targetTrace);
         }
-        return normalize(result);
+        return normalize(frameMatcher.getDistance(trace));
     }
 
     public double getFrameDistance(StackTraceElement targetFrame, StackTraceElement generatedFrame){
@@ -238,8 +222,36 @@ public class CrashCoverageFitnessCalculator {
 
 
 
-    private List<BranchCoverageTestFitness> setupDependencies(String className , String methodName, int lineNumber ) {
-        BytecodeInstruction goalInstruction = BytecodeInstructionPool.getInstance(TestGenerationContextUtility.getTestGenerationContextClassLoader(CrashProperties.integrationTesting)).getFirstInstructionAtLineNumber(className, methodName, lineNumber);
+    /**
+     * Returns the sorted branch goals that the given frame line is control dependent on. The target frame does not
+     * change during the search, so the goals of a line are computed once and shared by all the fitness functions
+     * (the method is derived from the class and the line). Lines that are not found in the instrumented classes are
+     * not cached, since their class may be loaded later.
+     */
+    static List<BranchCoverageTestFitness> getControlDependencyGoals(StackTraceElement frame) {
+        ClassLoader classLoader = TestGenerationContextUtility.getTestGenerationContextClassLoader(CrashProperties.integrationTesting);
+        String key = frame.getClassName() + ":" + frame.getLineNumber() + ":" + CrashProperties.integrationTesting;
+        synchronized (controlDependencyGoals) {
+            if (classLoader != controlDependencyGoalsLoader) {
+                controlDependencyGoals.clear();
+                controlDependencyGoalsLoader = classLoader;
+            }
+            List<BranchCoverageTestFitness> goals = controlDependencyGoals.get(key);
+            if (goals == null) {
+                String methodName = TestGenerationContextUtility.derivingMethodFromBytecode(CrashProperties.integrationTesting, frame.getClassName(), frame.getLineNumber());
+                goals = setupDependencies(classLoader, frame.getClassName(), methodName, frame.getLineNumber());
+                if (!goals.isEmpty()) {
+                    goals = Collections.unmodifiableList(goals);
+                    controlDependencyGoals.put(key, goals);
+                    LOG.debug("{} control dependency goals cached for line {} of {}", goals.size(), frame.getLineNumber(), frame.getClassName());
+                }
+            }
+            return goals;
+        }
+    }
+
+    private static List<BranchCoverageTestFitness> setupDependencies(ClassLoader classLoader, String className , String methodName, int lineNumber ) {
+        BytecodeInstruction goalInstruction = BytecodeInstructionPool.getInstance(classLoader).getFirstInstructionAtLineNumber(className, methodName, lineNumber);
         List<BranchCoverageTestFitness> branchCoverages = new ArrayList<>();
         if(goalInstruction == null){
             return branchCoverages;
@@ -284,7 +296,7 @@ public class CrashCoverageFitnessCalculator {
     }
 
 
-    private double normalize(double value) throws IllegalArgumentException {
+    static double normalize(double value) throws IllegalArgumentException {
         if (value < 0d) {
             throw new IllegalArgumentException("Values to normalize cannot be negative");
         }
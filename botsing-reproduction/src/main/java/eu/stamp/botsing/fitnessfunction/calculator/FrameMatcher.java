@@ -0,0 +1,135 @@
+package eu.stamp.botsing.fitnessfunction.calculator;
+
+import eu.stamp.botsing.StackTrace;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Target stack trace compiled for the frame similarity of {@link CrashCoverageFitnessCalculator}. The class and
+ * method names of the target frames are interned into int ids once, and every generated frame is normalized into
+ * the same ids (the names that are not in the target get no id). Normalized frames are cached, since the same
+ * frames are thrown again and again during the search, so comparing two frames only compares ints.
+ * A matcher is not thread-safe.
+ */
+public class FrameMatcher {
+
+    private static final int UNKNOWN = -1;
+    // Generated frames of EvoSuite, which are ignored
+    private static final int SKIPPED = -2;
+    private static final int MAX_CACHED_FRAMES = 10000;
+
+    private static final double CLASS_DISTANCE = CrashCoverageFitnessCalculator.normalize(3.0);
+    private static final double METHOD_DISTANCE = CrashCoverageFitnessCalculator.normalize(2.0);
+
+    private final StackTrace target;
+    private final Map<String, Integer> classIds = new HashMap<>();
+    private final Map<String, Integer> methodIds = new HashMap<>();
+
+    // Target frames, apart from the reflection ones
+    private final int[] targetClasses;
+    // Class without its inner class part, which also matches when the class itself does not
+    private final int[] targetOuterClasses;
+    private final int[] targetMethods;
+    private final int[] targetLines;
+
+    // Generated frame -> {class id, method id, line}
+    private final Map<StackTraceElement, int[]> normalizedFrames = new HashMap<>();
+
+    public FrameMatcher(StackTrace target) {
+        this.target = target;
+        int numberOfFrames = target.getNumberOfFrames();
+        int[] classes = new int[numberOfFrames];
+        int[] outerClasses = new int[numberOfFrames];
+        int[] methods = new int[numberOfFrames];
+        int[] lines = new int[numberOfFrames];
+        int size = 0;
+        for (int frameLevel = 1; frameLevel <= numberOfFrames; frameLevel++) {
+            StackTraceElement frame = target.getFrame(frameLevel);
+            String className = frame.getClassName();
+            if (className.contains("reflect") || className.contains("invoke")) {
+                continue;
+            }
+            classes[size] = intern(classIds, className);
+            int innerClass = className.indexOf('$');
+            outerClasses[size] = innerClass < 0 ? classes[size] : intern(classIds, className.substring(0, innerClass));
+            methods[size] = intern(methodIds, frame.getMethodName());
+            lines[size] = frame.getLineNumber();
+            size++;
+        }
+        targetClasses = Arrays.copyOf(classes, size);
+        targetOuterClasses = Arrays.copyOf(outerClasses, size);
+        targetMethods = Arrays.copyOf(methods, size);
+        targetLines = Arrays.copyOf(lines, size);
+    }
+
+    public StackTrace getTarget() {
+        return target;
+    }
+
+    /**
+     * Sum of the distances of the target frames to their closest generated frames, where the generated frames are
+     * matched in order. This is the distance of {@link CrashCoverageFitnessCalculator#calculateFrameSimilarity}
+     * before its normalization.
+     */
+    public double getDistance(StackTraceElement[] trace) {
+        int[][] frames = new int[trace.length][];
+        for (int pos = 0; pos < trace.length; pos++) {
+            frames[pos] = normalize(trace[pos]);
+        }
+
+        int startPoint = 0;
+        double result = 0.0;
+        for (int targetFrame = 0; targetFrame < targetClasses.length; targetFrame++) {
+            double minDistance = 1;
+            for (int pos = startPoint; pos < frames.length; pos++) {
+                int[] frame = frames[pos];
+                if (frame[0] != SKIPPED) {
+                    double distance = getFrameDistance(targetFrame, frame);
+                    if (distance < minDistance) {
+                        minDistance = distance;
+                        startPoint = pos;
+                    }
+                }
+            }
+            result += minDistance;
+        }
+        return result;
+    }
+
+    // Same as CrashCoverageFitnessCalculator#getFrameDistance
+    private double getFrameDistance(int targetFrame, int[] frame) {
+        if (frame[0] != targetClasses[targetFrame] && frame[0] != targetOuterClasses[targetFrame]) {
+            return CLASS_DISTANCE;
+        }
+        if (frame[1] != targetMethods[targetFrame]) {
+            return METHOD_DISTANCE;
+        }
+        double lineDistance = CrashCoverageFitnessCalculator.normalize(Math.abs(targetLines[targetFrame] - frame[2]));
+        return CrashCoverageFitnessCalculator.normalize(lineDistance);
+    }
+
+    private int[] normalize(StackTraceElement frame) {
+        int[] normalized = normalizedFrames.get(frame);
+        if (normalized == null) {
+            String className = frame.getClassName();
+            int classId = className.contains("evosuite") ? SKIPPED : classIds.getOrDefault(className, UNKNOWN);
+            normalized = new int[]{classId, methodIds.getOrDefault(frame.getMethodName(), UNKNOWN), frame.getLineNumber()};
+            if (normalizedFrames.size() >= MAX_CACHED_FRAMES) {
+                normalizedFrames.clear();
+            }
+            normalizedFrames.put(frame, normalized);
+        }
+        return normalized;
+    }
+
+    private static int intern(Map<String, Integer> ids, String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = ids.size();
+            ids.put(name, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,66 @@
+package eu.stamp.botsing.fitnessfunction.calculator;
+
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTrace;
+import org.evosuite.testcase.execution.MethodCall;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Index of the finished and unfinished method calls of one execution by method name and call depth. It is built
+ * lazily the first time the calls of an execution are looked up, and then shared by all the frames and fitness
+ * functions that check the same execution. An index is rebuilt if the trace of the execution is replaced.
+ */
+public class MethodCallIndex {
+
+    private static final Map<ExecutionResult, MethodCallIndex> indices = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final ExecutionTrace trace;
+    // method name -> call depth -> calls, in the order of the trace
+    private final Map<String, Map<Integer, List<MethodCall>>> calls = new HashMap<>();
+
+    MethodCallIndex(ExecutionTrace trace) {
+        this.trace = trace;
+        add(trace.getMethodCalls());
+        add(trace.getUnfinishedCalls());
+    }
+
+    private void add(List<MethodCall> methodCalls) {
+        for (MethodCall call : methodCalls) {
+            calls.computeIfAbsent(call.methodName, name -> new HashMap<>())
+                    .computeIfAbsent(call.callDepth, depth -> new ArrayList<>())
+                    .add(call);
+        }
+    }
+
+    /**
+     * Returns the index of the calls of the given execution.
+     */
+    public static MethodCallIndex of(ExecutionResult result) {
+        synchronized (indices) {
+            MethodCallIndex index = indices.get(result);
+            if (index == null || index.trace != result.getTrace()) {
+                index = new MethodCallIndex(result.getTrace());
+                indices.put(result, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Calls of the given method at the given depth, finished calls first, in the order of the trace.
+     */
+    public List<MethodCall> getCalls(String methodName, int callDepth) {
+        Map<Integer, List<MethodCall>> callsOfMethod = calls.get(methodName);
+        if (callsOfMethod == null) {
+            return Collections.emptyList();
+        }
+        List<MethodCall> callsAtDepth = callsOfMethod.get(callDepth);
+        return callsAtDepth == null ? Collections.<MethodCall>emptyList() : callsAtDepth;
+    }
+}
@@ -4,14 +4,21 @@ import eu.stamp.botsing.CrashProperties;
 import eu.stamp.botsing.StackTrace;
 import eu.stamp.botsing.commons.testgeneration.TestGenerationContextUtility;
 import eu.stamp.botsing.fitnessfunction.FitnessFunctionHelper;
+import eu.stamp.botsing.fitnessfunction.utils.CallDiversityUtility;
 import eu.stamp.botsing.ga.strategy.operators.GuidedSearchUtility;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.graphs.cfg.BytecodeInstruction;
 import org.evosuite.setup.TestClusterUtils;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.statements.Statement;
 import org.evosuite.utils.generic.GenericAccessibleObject;
 import org.evosuite.utils.generic.GenericConstructor;
 import org.evosuite.utils.generic.GenericMethod;
 import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
@@ -19,10 +26,16 @@ import java.util.*;
 
 public abstract class CallDiversityFitnessCalculator<T extends Chromosome> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(CallDiversityFitnessCalculator.class);
+
     protected GuidedSearchUtility utility = new GuidedSearchUtility();
     protected StackTrace targetTrace;
     protected static Set<GenericAccessibleObject<?>> callables = new HashSet<GenericAccessibleObject<?>>();
-    protected List<Individual> population;
+    // Dense ordinal of each callable, used as its bit position in call signatures
+    protected static Map<GenericAccessibleObject<?>, Integer> callableOrdinals = new HashMap<>();
+    protected List<Individual<T>> population;
+    // Signatures of evaluated chromosomes. Each execution of a test case produces a new execution result.
+    private final Map<ExecutionResult, CallSignature> signatures = Collections.synchronizedMap(new WeakHashMap<>());
 
     public CallDiversityFitnessCalculator(StackTrace targetTrace){
         this.targetTrace = targetTrace;
@@ -65,7 +78,7 @@ public abstract class CallDiversityFitnessCalculator<T extends Chromosome> {
             GenericAccessibleObject methodObj = new GenericMethod(method,targetClass);
             String methodName = method.getName()+ Type.getMethodDescriptor(method);
             if(!methodObj.isPrivate()){
-                callables.add(methodObj);
+                addCallable(methodObj);
             }
         }
 
@@ -75,8 +88,63 @@ public abstract class CallDiversityFitnessCalculator<T extends Chromosome> {
             GenericAccessibleObject constructorObj = new GenericConstructor(constructor,targetClass);
             String constructorName = "<init>"+Type.getConstructorDescriptor(constructor);
             if(!constructorObj.isPrivate()){
-                callables.add(constructorObj);
+                addCallable(constructorObj);
             }
         }
     }
+
+    private static synchronized void addCallable(GenericAccessibleObject<?> callable) {
+        if (callables.add(callable)) {
+            callableOrdinals.put(callable, callableOrdinals.size());
+        }
+    }
+
+    /**
+     * Returns the callables of the target class that are called in the given test case. The signature of an
+     * unchanged chromosome is calculated only once for its last execution.
+     */
+    public CallSignature getCallSignature(T chromosome) {
+        if (callables.isEmpty()) {
+            throw new IllegalStateException("Callables list is empty");
+        }
+
+        if (!(chromosome instanceof TestChromosome)) {
+            throw new IllegalArgumentException("The given chromosome is not a test case");
+        }
+
+        TestChromosome testChromosome = (TestChromosome) chromosome;
+        ExecutionResult lastExecution = testChromosome.getLastExecutionResult();
+        if (testChromosome.isChanged() || lastExecution == null) {
+            // The test case has been modified since its last execution
+            return calculateCallSignature(testChromosome.getTestCase());
+        }
+
+        CallSignature signature = signatures.get(lastExecution);
+        if (signature == null) {
+            signature = calculateCallSignature(testChromosome.getTestCase());
+            signatures.put(lastExecution, signature);
+        }
+        return signature;
+    }
+
+    private CallSignature calculateCallSignature(TestCase testCase) {
+        CallSignature signature = new CallSignature(callableOrdinals.size());
+        int testSize = testCase.size();
+        for (int statementIndex = 0; statementIndex < testSize; statementIndex++) {
+            Statement currentStatement = testCase.getStatement(statementIndex);
+            if (CallDiversityUtility.isInteresting(currentStatement, this.targetTrace.getTargetClass())) {
+                Integer ordinal = callableOrdinals.get(currentStatement.getAccessibleObject());
+                if (ordinal == null) {
+                    LOG.debug("detected generic accessible object is not available  in the methods list.");
+                } else {
+                    signature.set(ordinal);
+                }
+            }
+        }
+        return signature;
+    }
+
+    public static int getNumberOfCallables() {
+        return callables.size();
+    }
 }
@@ -0,0 +1,71 @@
+package eu.stamp.botsing.fitnessfunction.calculator.diversity;
+
+/**
+ * Set of the target class callables that a test case calls, stored as a bitset indexed by the callable ordinals.
+ */
+public class CallSignature {
+
+    private final long[] words;
+
+    public CallSignature(int numberOfCallables) {
+        words = new long[(numberOfCallables + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    public void set(int ordinal) {
+        words[ordinal / Long.SIZE] |= 1L << (ordinal % Long.SIZE);
+    }
+
+    public boolean get(int ordinal) {
+        int word = ordinal / Long.SIZE;
+        return word < words.length && (words[word] & (1L << (ordinal % Long.SIZE))) != 0;
+    }
+
+    /**
+     * Number of callables that are called by exactly one of the two signatures.
+     */
+    public int hammingDistance(CallSignature other) {
+        long[] shorter = words.length <= other.words.length ? words : other.words;
+        long[] longer = shorter == words ? other.words : words;
+        int distance = 0;
+        for (int i = 0; i < shorter.length; i++) {
+            distance += Long.bitCount(shorter[i] ^ longer[i]);
+        }
+        for (int i = shorter.length; i < longer.length; i++) {
+            distance += Long.bitCount(longer[i]);
+        }
+        return distance;
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        return cardinality;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o){
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()){
+            return false;
+        }
+        return hammingDistance((CallSignature) o) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        // Trailing empty words do not change the represented set
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + Long.hashCode(words[i]);
+        }
+        return hash;
+    }
+}
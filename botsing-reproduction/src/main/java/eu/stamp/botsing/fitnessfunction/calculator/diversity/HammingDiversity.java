@@ -1,17 +1,11 @@
 package eu.stamp.botsing.fitnessfunction.calculator.diversity;
 
 import eu.stamp.botsing.StackTrace;
-import eu.stamp.botsing.fitnessfunction.utils.CallDiversityUtility;
 import org.evosuite.ga.Chromosome;
-import org.evosuite.testcase.TestChromosome;
-import org.evosuite.testcase.statements.Statement;
-import org.evosuite.utils.generic.GenericAccessibleObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class HammingDiversity<T extends Chromosome> extends CallDiversityFitnessCalculator<T> {
 
@@ -19,7 +13,7 @@ public class HammingDiversity<T extends Chromosome> extends CallDiversityFitness
 
     private static HammingDiversity instance = null;
 
-    public static HammingDiversity getInstance(StackTrace targetTrace){
+    public static synchronized HammingDiversity getInstance(StackTrace targetTrace){
         if (instance == null){
             instance = new HammingDiversity(targetTrace);
         }
@@ -40,88 +34,32 @@ public class HammingDiversity<T extends Chromosome> extends CallDiversityFitness
             throw new IllegalStateException("the population for checking diversity is empty");
         }
 
+        // The signature of the given test is calculated once for the whole population
+        CallSignature methodCallsOfGivenChromosome = getCallSignature(testChromosome);
         double min = Double.MAX_VALUE;
 
         for (Individual<T> individual: this.population){
-            min=Double.min(min,calculateHammingDistance(testChromosome,individual));
+            min=Double.min(min,calculateHammingDistance(methodCallsOfGivenChromosome,individual));
         }
         return min;
     }
 
     public double getHammingDistance(T testChromosome, T chromosome){
-        Map<GenericAccessibleObject<?>, Integer> methodCallsOfGivenChromosome = calculateMethodCalls(chromosome);
-        Individual<T> individual=new Individual<>(chromosome,methodCallsOfGivenChromosome);
-        return calculateHammingDistance(testChromosome,individual);
+        Individual<T> individual=new Individual<>(chromosome,getCallSignature(chromosome));
+        return calculateHammingDistance(getCallSignature(testChromosome),individual);
     }
 
-    private double calculateHammingDistance(T testChromosome, Individual<T> individual) {
-        Map<GenericAccessibleObject<?>, Integer> methodCallsOfGivenChromosome = calculateMethodCalls(testChromosome);
-        Map<GenericAccessibleObject<?>, Integer> methodCallsOfIndividual = individual.getMethodCalls();
-
-        if (methodCallsOfGivenChromosome.keySet().size() != methodCallsOfIndividual.keySet().size()){
-            throw new IllegalArgumentException("Size of method calls are not the same");
-        }
-
-        int total = methodCallsOfGivenChromosome.keySet().size();
-
-        int common = 0;
-
-        for(GenericAccessibleObject<?> call: methodCallsOfGivenChromosome.keySet()){
-            if(!methodCallsOfIndividual.containsKey(call)){
-                throw new IllegalArgumentException("The keys of the given tests are not the same");
-            }
-            if(methodCallsOfGivenChromosome.get(call).intValue() == methodCallsOfIndividual.get(call).intValue()){
-                common++;
-            }
-        }
-
+    private double calculateHammingDistance(CallSignature methodCallsOfGivenChromosome, Individual<T> individual) {
+        int total = callables.size();
+        int common = total - methodCallsOfGivenChromosome.hammingDistance(individual.getMethodCalls());
         return ((double)common/total);
     }
 
     @Override
     public void addToPopulation(List<T> chromosomes){
         for (T chromosome : chromosomes){
-            Map<GenericAccessibleObject<?>,Integer> methodCalls = calculateMethodCalls(chromosome);
-            population.add(new Individual(chromosome,methodCalls));
-        }
-    }
-
-    private Map<GenericAccessibleObject<?>, Integer> calculateMethodCalls(T chromosome) {
-        if(callables.isEmpty()){
-            throw new IllegalStateException("Callables list is empty");
-        }
-
-        if (!(chromosome instanceof TestChromosome)){
-            throw new IllegalArgumentException("The given chromosome is not a test case");
+            population.add(new Individual<>(chromosome,getCallSignature(chromosome)));
         }
-
-        Map<GenericAccessibleObject<?>, Integer> result = new HashMap<>();
-
-        for (GenericAccessibleObject<?> call: callables){
-            result.put(call,0);
-        }
-
-        TestChromosome givenTestChromosome = (TestChromosome) chromosome;
-
-        int testSize = givenTestChromosome.getTestCase().size();
-        // Check each of the statements
-        for (int statementIndex=0; statementIndex <testSize; statementIndex++){
-            Statement currentStatement = givenTestChromosome.getTestCase().getStatement(statementIndex);
-            if(CallDiversityUtility.isInteresting(currentStatement,this.targetTrace.getTargetClass())){
-
-                GenericAccessibleObject genObj = currentStatement.getAccessibleObject();
-
-                if (!result.containsKey(genObj)){
-                    LOG.debug("detected generic accessible object is not available  in the methods list.");
-                }else{
-                    result.put(genObj,1);
-                }
-
-
-            }
-        }
-
-        return result;
     }
 
 }
@@ -1,17 +1,15 @@
 package eu.stamp.botsing.fitnessfunction.calculator.diversity;
 
 import org.evosuite.ga.Chromosome;
-import org.evosuite.utils.generic.GenericAccessibleObject;
 
-import java.util.Map;
 import java.util.Objects;
 
 public class Individual<T extends Chromosome>  {
 
     T chromosome;
-    Map<GenericAccessibleObject<?>,Integer> methodCalls;
+    CallSignature methodCalls;
 
-    public Individual(T chromosome, Map<GenericAccessibleObject<?>, Integer> methodCalls) {
+    public Individual(T chromosome, CallSignature methodCalls) {
         this.chromosome=chromosome;
         this.methodCalls=methodCalls;
     }
@@ -20,7 +18,7 @@ public class Individual<T extends Chromosome>  {
         return chromosome;
     }
 
-    public Map<GenericAccessibleObject<?>, Integer> getMethodCalls() {
+    public CallSignature getMethodCalls() {
         return methodCalls;
     }
 
@@ -14,6 +14,10 @@ public class CrashDistanceEvolution {
         return bestFitnessValue;
     }
 
+    public int getFitnessFunctionEvaluations() {
+        return fitnessFunctionEvaluations;
+    }
+
     private double bestFitnessValue = Double.MAX_VALUE;
 
     private int fitnessFunctionEvaluations = 0;
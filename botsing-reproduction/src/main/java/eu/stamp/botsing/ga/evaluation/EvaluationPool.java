@@ -0,0 +1,265 @@
+package eu.stamp.botsing.ga.evaluation;
+
+import eu.stamp.botsing.CrashProperties;
+import eu.stamp.botsing.fitnessfunction.IntegrationTestingFF;
+import eu.stamp.botsing.fitnessfunction.WeightedSum;
+import eu.stamp.botsing.fitnessfunction.utils.CrashDistanceEvolution;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates a batch of individuals (e.g., the offspring of a generation) on {@link CrashProperties#evaluationWorkers}
+ * isolated workers. Each worker is a child JVM, with its own instrumented classes and ExecutionTracer, and its own
+ * security manager, standard streams, system properties and threads, so test cases can be executed concurrently
+ * without sharing any state of EvoSuite or of the process.
+ * The fitness values are merged back on the search thread in the order of the batch. Since the execution results stay
+ * in the workers, an individual that covers a goal is executed again on the search thread, and any individual that a
+ * worker could not evaluate is evaluated on the search thread. The other individuals keep the fitness values of the
+ * workers without an execution result, and they are marked as changed: {@link #getExecutionResult(TestChromosome)}
+ * executes them on the search thread when their execution result is needed (e.g., by the secondary objectives).
+ * Their values are reported to the {@link CrashDistanceEvolution} of the search, as the crash coverage functions do
+ * when they evaluate a test case on the search thread.
+ * With a single worker, the batch is evaluated on the search thread as before. In both cases, the individuals whose
+ * test case is in the {@link FitnessCache}, or whose execution is in the {@link PrefixExecutionCache}, are not
+ * executed.
+ */
+public class EvaluationPool {
+    private static final Logger LOG = LoggerFactory.getLogger(EvaluationPool.class);
+
+    private static EvaluationPool instance = null;
+
+    private final List<IsolatedWorker> workers = new ArrayList<>();
+    private boolean started = false;
+    private boolean available = true;
+
+    private EvaluationPool() {
+    }
+
+    // Pool over workers that are already started
+    EvaluationPool(List<IsolatedWorker> workers) {
+        this.workers.addAll(workers);
+        started = true;
+    }
+
+    public static synchronized EvaluationPool getInstance() {
+        if (instance == null) {
+            instance = new EvaluationPool();
+        }
+        return instance;
+    }
+
+    public <T extends Chromosome> void evaluate(List<T> chromosomes, List<? extends FitnessFunction<T>> fitnessFunctions) {
+        evaluate(chromosomes, fitnessFunctions, fitnessFunction -> true);
+    }
+
+    /**
+     * Evaluates the fitness functions that pass the filter for all the given chromosomes.
+     * @param fitnessFunctions all the fitness functions of the search, in the order they were added to it.
+     */
+    public <T extends Chromosome> void evaluate(List<T> chromosomes, List<? extends FitnessFunction<T>> fitnessFunctions,
+                                                Predicate<? super FitnessFunction<T>> filter) {
+        List<FitnessFunction<T>> evaluated = new ArrayList<>();
+        int[] requested = new int[fitnessFunctions.size()];
+        for (int index = 0; index < fitnessFunctions.size(); index++) {
+            if (filter.test(fitnessFunctions.get(index))) {
+                requested[evaluated.size()] = index;
+                evaluated.add(fitnessFunctions.get(index));
+            }
+        }
+        requested = Arrays.copyOf(requested, evaluated.size());
+
+        // Identical test cases that are already evaluated are not executed again, and the test cases whose executed
+        // prefix is cached are evaluated on the search thread without executing them
+        FitnessCache cache = FitnessCache.getInstance();
+        PrefixExecutionCache prefixes = PrefixExecutionCache.getInstance();
+        List<T> pending = new ArrayList<>(chromosomes.size());
+        for (T chromosome : chromosomes) {
+            if (cache.applyCachedFitness(chromosome, evaluated)) {
+                continue;
+            }
+            if (chromosome instanceof TestChromosome && prefixes.reuse((TestChromosome) chromosome)) {
+                evaluateLocally(chromosome, evaluated);
+            } else {
+                pending.add(chromosome);
+            }
+        }
+        chromosomes = pending;
+
+        if (chromosomes.size() < 2 || evaluated.isEmpty() || !start(fitnessFunctions.size())) {
+            for (T chromosome : chromosomes) {
+                evaluateLocally(chromosome, evaluated);
+            }
+            return;
+        }
+
+        double[][] results = evaluateConcurrently(chromosomes, requested);
+        for (int index = 0; index < chromosomes.size(); index++) {
+            T chromosome = chromosomes.get(index);
+            if (results[index] == null) {
+                evaluateLocally(chromosome, evaluated);
+                continue;
+            }
+            boolean coversGoal = false;
+            for (int ff = 0; ff < evaluated.size(); ff++) {
+                chromosome.setFitness(evaluated.get(ff), results[index][ff]);
+                coversGoal |= results[index][ff] == 0.0 && !evaluated.get(ff).isMaximizationFunction();
+            }
+            if (coversGoal) {
+                // Keep the execution result of the solutions for the rest of the search and for the final report
+                evaluateLocally(chromosome, evaluated);
+            } else {
+                for (int ff = 0; ff < evaluated.size(); ff++) {
+                    report(evaluated.get(ff), chromosome, results[index][ff]);
+                }
+                // The execution result inherited from the parent does not belong to this test case, it is computed
+                // again if it is needed
+                ((TestChromosome) chromosome).clearCachedResults();
+                chromosome.setChanged(true);
+            }
+        }
+    }
+
+    /**
+     * Returns the execution result of the chromosome. A chromosome evaluated by a worker does not have one, so its
+     * test case is executed on the search thread (or its execution is taken from the {@link PrefixExecutionCache}).
+     */
+    public static ExecutionResult getExecutionResult(TestChromosome chromosome) {
+        if (chromosome.getLastExecutionResult() == null && !PrefixExecutionCache.getInstance().reuse(chromosome)) {
+            chromosome.setLastExecutionResult(TestCaseExecutor.runTest(chromosome.getTestCase()));
+            // The fitness values given by the worker belong to this execution
+            chromosome.setChanged(false);
+        }
+        return chromosome.getLastExecutionResult();
+    }
+
+    private <T extends Chromosome> double[][] evaluateConcurrently(List<T> chromosomes, int[] requested) {
+        byte[][] tests = new byte[chromosomes.size()][];
+        for (int index = 0; index < chromosomes.size(); index++) {
+            tests[index] = serialize(chromosomes.get(index));
+        }
+
+        double[][] results = new double[chromosomes.size()][];
+        AtomicInteger next = new AtomicInteger();
+        List<Future<Void>> tasks = new ArrayList<>(workers.size());
+        for (IsolatedWorker worker : workers) {
+            tasks.add(worker.submit(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < tests.length) {
+                    if (tests[index] == null) {
+                        continue;
+                    }
+                    try {
+                        results[index] = worker.evaluate(tests[index], requested);
+                    } catch (Exception e) {
+                        LOG.debug("Evaluation worker could not evaluate a test case: {}", e.getMessage());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        for (Future<Void> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                LOG.warn("Evaluation worker failed: {}", e.getCause().toString());
+            }
+        }
+        return results;
+    }
+
+    // Updates the statistics that the crash coverage functions update when they evaluate a test case on the search thread
+    private static void report(FitnessFunction<?> fitnessFunction, Chromosome chromosome, double fitness) {
+        if (fitnessFunction instanceof WeightedSum || fitnessFunction instanceof IntegrationTestingFF) {
+            chromosome.increaseNumberOfEvaluations();
+            CrashDistanceEvolution.getInstance().inform(fitness);
+        }
+    }
+
+    private <T extends Chromosome> void evaluateLocally(T chromosome, List<FitnessFunction<T>> fitnessFunctions) {
+        for (FitnessFunction<T> fitnessFunction : fitnessFunctions) {
+            FitnessCache.getInstance().getFitness(fitnessFunction, chromosome);
+        }
+    }
+
+    private byte[] serialize(Chromosome chromosome) {
+        if (!(chromosome instanceof TestChromosome)) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(((TestChromosome) chromosome).getTestCase());
+        } catch (IOException e) {
+            LOG.debug("Test case could not be serialized: {}", e.getMessage());
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    // Starts the workers at the first batch. Returns false if the batches should be evaluated on the search thread.
+    private boolean start(int numberOfFitnessFunctions) {
+        if (started || !available || CrashProperties.evaluationWorkers < 2) {
+            return started && available;
+        }
+        started = true;
+
+        LOG.info("Starting {} evaluation workers", CrashProperties.evaluationWorkers);
+        String[] commandLineArguments = CrashProperties.getInstance().getCommandLineArguments();
+        List<Future<?>> setups = new ArrayList<>();
+        for (int id = 0; id < CrashProperties.evaluationWorkers; id++) {
+            IsolatedWorker worker = new IsolatedWorker(id);
+            workers.add(worker);
+            setups.add(worker.start(commandLineArguments));
+        }
+        try {
+            for (Future<?> setup : setups) {
+                setup.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            available = false;
+        } catch (ExecutionException e) {
+            LOG.warn("Evaluation workers could not be started, evaluating on the search thread. cause: {}", e.getCause().toString());
+            available = false;
+        }
+
+        for (IsolatedWorker worker : workers) {
+            if (available && worker.getNumberOfFitnessFunctions() != numberOfFitnessFunctions) {
+                LOG.warn("Evaluation workers do not have the fitness functions of the search, evaluating on the search thread.");
+                available = false;
+            }
+        }
+        if (!available) {
+            shutdown();
+        }
+        return available;
+    }
+
+    public void shutdown() {
+        for (IsolatedWorker worker : workers) {
+            worker.shutdown();
+        }
+        workers.clear();
+        if (started) {
+            available = false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package eu.stamp.botsing.ga.evaluation;
+
+import eu.stamp.botsing.Botsing;
+import eu.stamp.botsing.CrashProperties;
+import eu.stamp.botsing.fitnessfunction.FitnessFunctions;
+import eu.stamp.botsing.fitnessfunction.utils.SpecialCallersPool;
+import eu.stamp.botsing.reproduction.CrashReproduction;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.util.List;
+
+/**
+ * Evaluates test cases on behalf of the {@link EvaluationPool}. Each worker runs in its own child JVM, so it has its
+ * own static state of Botsing and EvoSuite (properties, instrumenting class loader, ExecutionTracer, ...), which is set
+ * up by replaying the command line arguments of the search, and its own process-wide state (security manager,
+ * standard streams, system properties and threads). The worker gets the serialized test cases on its standard input
+ * and answers with the fitness values on its standard output, as described in {@link IsolatedWorker}; what the tests
+ * and the logs print goes to the standard error.
+ */
+public class EvaluationWorker {
+    private static final Logger LOG = LoggerFactory.getLogger(EvaluationWorker.class);
+
+    private List<TestFitnessFunction> fitnessFunctions;
+
+    public void setup(String[] commandLineArguments) {
+        if (!new Botsing().setup(commandLineArguments)) {
+            throw new IllegalStateException("The evaluation worker could not be configured");
+        }
+        LoopCounter.getInstance().setActive(false);
+        TestCaseExecutor.initExecutor();
+        if (!CrashReproduction.initializeTarget()) {
+            throw new IllegalStateException("Could not load target class in the evaluation worker");
+        }
+        ExecutionTracer.enableTraceCalls();
+        if (CrashProperties.integrationTesting) {
+            SpecialCallersPool.getInstance().detectSpecialCallers(CrashProperties.getInstance().getStackTrace(0));
+        }
+        // Same goals, in the same order, as the search
+        fitnessFunctions = new FitnessFunctions().getFitnessFunctionList();
+        LOG.debug("Evaluation worker is ready with {} fitness functions", fitnessFunctions.size());
+    }
+
+    public int getNumberOfFitnessFunctions() {
+        return fitnessFunctions.size();
+    }
+
+    /**
+     * Executes the given serialized test case and returns the values of the requested fitness functions.
+     */
+    public double[] evaluate(byte[] serializedTest, int[] requestedFitnessFunctions) throws IOException, ClassNotFoundException {
+        TestCase test;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serializedTest))) {
+            test = (TestCase) in.readObject();
+        }
+        TestChromosome chromosome = new TestChromosome();
+        chromosome.setTestCase(test);
+
+        double[] fitnessValues = new double[requestedFitnessFunctions.length];
+        for (int index = 0; index < requestedFitnessFunctions.length; index++) {
+            fitnessValues[index] = fitnessFunctions.get(requestedFitnessFunctions[index]).getFitness(chromosome);
+        }
+        return fitnessValues;
+    }
+
+    public void shutdown() {
+        TestCaseExecutor.pullDown();
+    }
+
+    /**
+     * Takes the command line arguments of the search, and serves its requests until it stops the worker.
+     */
+    @SuppressWarnings("checkstyle:systemexit")
+    public static void main(String[] args) throws IOException {
+        // The standard output only carries the responses to the search
+        InputStream requests = System.in;
+        FileOutputStream responses = new FileOutputStream(FileDescriptor.out);
+        System.setOut(System.err);
+        System.setIn(new ByteArrayInputStream(new byte[0]));
+
+        EvaluationWorker worker = new EvaluationWorker();
+        try {
+            worker.setup(args);
+        } catch (RuntimeException e) {
+            LOG.error("The evaluation worker could not be set up", e);
+            System.exit(1);
+        }
+        IsolatedWorker.serve(worker.getNumberOfFitnessFunctions(), worker::evaluate, requests, responses);
+        worker.shutdown();
+        // EvoSuite may leave non-daemon threads behind
+        System.exit(0);
+    }
+}
@@ -0,0 +1,221 @@
+package eu.stamp.botsing.ga.evaluation;
+
+import eu.stamp.botsing.CrashProperties;
+import eu.stamp.botsing.fitnessfunction.CallDiversity;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of the fitness values of test cases, keyed by a fingerprint of their code. An entry keeps the code
+ * of its test case, so that two test cases whose fingerprints collide never share their values. When the values of a
+ * test case identical to an already evaluated one are asked, they are taken from the cache and the test case is not
+ * executed: it gets a copy of the cached execution result, as the rest of the search (e.g., the secondary objectives)
+ * reads it. The cache holds at most {@link CrashProperties#fitnessCacheSize} test cases, and it is disabled when the
+ * size is 0.
+ * Only the fitness functions that depend on the test case alone are cached (i.e., not the call diversity, which
+ * depends on the population). A test case whose cached value covers a goal is executed anyway, so that the
+ * solutions keep their execution result. The test cases that are not in the cache are evaluated through the
+ * {@link PrefixExecutionCache}.
+ */
+public class FitnessCache {
+    private static final Logger LOG = LoggerFactory.getLogger(FitnessCache.class);
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static FitnessCache instance = null;
+
+    private final LinkedHashMap<Long, CachedEvaluation> entries;
+    private int capacity;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    FitnessCache(int capacity) {
+        this.capacity = capacity;
+        entries = new LinkedHashMap<Long, CachedEvaluation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedEvaluation> eldest) {
+                if (size() > FitnessCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static synchronized FitnessCache getInstance() {
+        if (instance == null) {
+            instance = new FitnessCache(CrashProperties.fitnessCacheSize);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the value of the fitness function for the chromosome, and updates the fitness of the chromosome as
+     * {@link FitnessFunction#getFitness(Chromosome)} does.
+     */
+    public synchronized <T extends Chromosome> double getFitness(FitnessFunction<T> fitnessFunction, T chromosome) {
+        if (!isCacheable(fitnessFunction, chromosome) || !needsExecution(chromosome)) {
+            return PrefixExecutionCache.getInstance().getFitness(fitnessFunction, chromosome);
+        }
+
+        TestChromosome testChromosome = (TestChromosome) chromosome;
+        String code = testChromosome.getTestCase().toCode();
+        long fingerprint = fingerprint(code);
+        Double cached = lookup(fingerprint, code, fitnessFunction);
+        if (cached != null && !coversGoal(fitnessFunction, cached)) {
+            hits++;
+            chromosome.setFitness(fitnessFunction, cached);
+            restoreExecution(testChromosome, entries.get(fingerprint).result);
+            return cached;
+        }
+
+        misses++;
+        double fitness = PrefixExecutionCache.getInstance().getFitness(fitnessFunction, chromosome);
+        store(fingerprint, code, fitnessFunction, fitness, testChromosome.getLastExecutionResult());
+        return fitness;
+    }
+
+    /**
+     * Sets the fitness values of a chromosome that needs to be executed from the cache, if all of them are known.
+     * @return true if the chromosome does not need to be evaluated anymore.
+     */
+    synchronized <T extends Chromosome> boolean applyCachedFitness(T chromosome, List<FitnessFunction<T>> fitnessFunctions) {
+        if (fitnessFunctions.isEmpty()) {
+            return false;
+        }
+        for (FitnessFunction<T> fitnessFunction : fitnessFunctions) {
+            if (!isCacheable(fitnessFunction, chromosome)) {
+                return false;
+            }
+        }
+        if (!needsExecution(chromosome)) {
+            return false;
+        }
+
+        TestChromosome testChromosome = (TestChromosome) chromosome;
+        String code = testChromosome.getTestCase().toCode();
+        long fingerprint = fingerprint(code);
+        double[] values = new double[fitnessFunctions.size()];
+        for (int index = 0; index < values.length; index++) {
+            Double cached = lookup(fingerprint, code, fitnessFunctions.get(index));
+            if (cached == null || coversGoal(fitnessFunctions.get(index), cached)) {
+                return false;
+            }
+            values[index] = cached;
+        }
+
+        hits += values.length;
+        for (int index = 0; index < values.length; index++) {
+            chromosome.setFitness(fitnessFunctions.get(index), values[index]);
+        }
+        restoreExecution(testChromosome, entries.get(fingerprint).result);
+        return true;
+    }
+
+    // The execution result inherited from the parent does not belong to this test case, it gets a copy of the cached one
+    private static void restoreExecution(TestChromosome chromosome, ExecutionResult cachedResult) {
+        ExecutionResult result = cachedResult.clone();
+        result.setTest(chromosome.getTestCase());
+        chromosome.setLastExecutionResult(result);
+        chromosome.setChanged(false);
+    }
+
+    // Only the values of the same test case, whose execution result is cached, can be reused
+    private Double lookup(long fingerprint, String code, FitnessFunction<?> fitnessFunction) {
+        CachedEvaluation entry = entries.get(fingerprint);
+        if (entry == null || entry.result == null || !entry.code.equals(code)) {
+            return null;
+        }
+        return entry.values.get(fitnessFunction);
+    }
+
+    private void store(long fingerprint, String code, FitnessFunction<?> fitnessFunction, double fitness, ExecutionResult result) {
+        CachedEvaluation entry = entries.get(fingerprint);
+        if (entry == null || !entry.code.equals(code)) {
+            // On a collision, the last evaluated test case replaces the other one
+            entry = new CachedEvaluation(code);
+            entries.put(fingerprint, entry);
+        }
+        if (entry.result == null && result != null) {
+            entry.result = result.clone();
+        }
+        entry.values.put(fitnessFunction, fitness);
+    }
+
+    boolean isCacheable(FitnessFunction<?> fitnessFunction, Chromosome chromosome) {
+        return capacity > 0 && chromosome instanceof TestChromosome && !(fitnessFunction instanceof CallDiversity);
+    }
+
+    // Unchanged chromosomes with an execution result are evaluated without executing them again
+    private static boolean needsExecution(Chromosome chromosome) {
+        return chromosome.isChanged() || ((TestChromosome) chromosome).getLastExecutionResult() == null;
+    }
+
+    static boolean coversGoal(FitnessFunction<?> fitnessFunction, double fitness) {
+        return fitness == 0.0 && !fitnessFunction.isMaximizationFunction();
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the code of a test case, which only depends on its statements.
+     */
+    long fingerprint(String code) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : code.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized void logStatistics() {
+        if (capacity > 0) {
+            LOG.info("Fitness cache: {} hits, {} misses, {} evictions, {} cached test cases", hits, misses, evictions, entries.size());
+        }
+    }
+
+    private static class CachedEvaluation {
+        private final String code;
+        private final Map<FitnessFunction<?>, Double> values = new HashMap<>(4);
+        private ExecutionResult result;
+
+        private CachedEvaluation(String code) {
+            this.code = code;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package eu.stamp.botsing.ga.evaluation;
+
+import org.evosuite.runtime.sandbox.Sandbox;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handle of the search on one {@link EvaluationWorker}, which runs in a child JVM over the class path of Botsing. The
+ * worker talks to the search through the standard input and output of the child, and it is only called from its own
+ * thread. The child writes its number of fitness functions once it is set up. Each request is a serialized test case
+ * (its length, then its bytes) followed by the indexes of the requested fitness functions (their number, then the
+ * indexes), and the child answers {@code true} and the values, or {@code false} and its error. A negative length stops
+ * the child.
+ */
+class IsolatedWorker {
+
+    private static final long SHUTDOWN_TIMEOUT = 10;
+
+    private final String mainClass;
+    private final ExecutorService thread;
+    private Process process;
+    private DataOutputStream requests;
+    private DataInputStream responses;
+    private int numberOfFitnessFunctions;
+
+    /**
+     * Evaluates a serialized test case in the child.
+     */
+    interface Evaluator {
+        double[] evaluate(byte[] serializedTest, int[] requestedFitnessFunctions) throws Exception;
+    }
+
+    IsolatedWorker(int id) {
+        this(id, EvaluationWorker.class.getName());
+    }
+
+    // The main class takes the command line arguments of the search, and serves the requests of the worker
+    IsolatedWorker(int id, String mainClass) {
+        this.mainClass = mainClass;
+        thread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread workerThread = new Thread(runnable, "botsing-evaluation-worker-" + id);
+            workerThread.setDaemon(true);
+            if (Sandbox.isSecurityManagerInitialized()) {
+                Sandbox.addPrivilegedThread(workerThread);
+            }
+            return workerThread;
+        });
+    }
+
+    Future<?> start(String[] commandLineArguments) {
+        return thread.submit(() -> {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(mainClass);
+            command.addAll(Arrays.asList(commandLineArguments));
+            process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            requests = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            responses = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+            try {
+                numberOfFitnessFunctions = responses.readInt();
+            } catch (EOFException e) {
+                throw new IllegalStateException("The evaluation worker exited during its setup");
+            }
+            return null;
+        });
+    }
+
+    int getNumberOfFitnessFunctions() {
+        return numberOfFitnessFunctions;
+    }
+
+    <V> Future<V> submit(Callable<V> task) {
+        return thread.submit(task);
+    }
+
+    /**
+     * Evaluates a serialized test case. It should only be called by a task submitted to this worker.
+     */
+    double[] evaluate(byte[] serializedTest, int[] requestedFitnessFunctions) throws IOException {
+        requests.writeInt(serializedTest.length);
+        requests.write(serializedTest);
+        requests.writeInt(requestedFitnessFunctions.length);
+        for (int index : requestedFitnessFunctions) {
+            requests.writeInt(index);
+        }
+        requests.flush();
+
+        if (!responses.readBoolean()) {
+            throw new IllegalStateException(responses.readUTF());
+        }
+        double[] fitnessValues = new double[requestedFitnessFunctions.length];
+        for (int index = 0; index < fitnessValues.length; index++) {
+            fitnessValues[index] = responses.readDouble();
+        }
+        return fitnessValues;
+    }
+
+    void shutdown() {
+        thread.submit(() -> {
+            if (requests != null) {
+                requests.writeInt(-1);
+                requests.flush();
+            }
+            return null;
+        });
+        thread.shutdown();
+        try {
+            thread.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+            if (process != null && !process.waitFor(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (process != null) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Serves the requests of the search in the child, until the search stops it or exits.
+     */
+    static void serve(int numberOfFitnessFunctions, Evaluator evaluator, InputStream in, OutputStream out) throws IOException {
+        DataInputStream requests = new DataInputStream(new BufferedInputStream(in));
+        DataOutputStream responses = new DataOutputStream(new BufferedOutputStream(out));
+        responses.writeInt(numberOfFitnessFunctions);
+        responses.flush();
+        while (true) {
+            int length;
+            try {
+                length = requests.readInt();
+            } catch (EOFException e) {
+                // The search is over
+                return;
+            }
+            if (length < 0) {
+                return;
+            }
+            byte[] serializedTest = new byte[length];
+            requests.readFully(serializedTest);
+            int[] requestedFitnessFunctions = new int[requests.readInt()];
+            for (int index = 0; index < requestedFitnessFunctions.length; index++) {
+                requestedFitnessFunctions[index] = requests.readInt();
+            }
+
+            double[] fitnessValues;
+            try {
+                fitnessValues = evaluator.evaluate(serializedTest, requestedFitnessFunctions);
+            } catch (Exception e) {
+                responses.writeBoolean(false);
+                responses.writeUTF(String.valueOf(e));
+                responses.flush();
+                continue;
+            }
+            responses.writeBoolean(true);
+            for (double fitnessValue : fitnessValues) {
+                responses.writeDouble(fitnessValue);
+            }
+            responses.flush();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package eu.stamp.botsing.ga.evaluation;
+
+import eu.stamp.botsing.CrashProperties;
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of the executions that stopped at an exception, keyed by the statements that were executed.
+ * Since the execution of a test case stops at the first thrown exception, the statements after it are never
+ * executed: an offspring that only differs from an executed test case after the statement that threw (e.g., after a
+ * crossover point or an appended call) has the same execution, which is taken from the cache instead of executing
+ * the test case again.
+ * An execution is cached only if it cannot depend on the previous executions or on the environment (i.e., the static
+ * state is reset, and it did not time out, write a system property or hit the sandbox). The cache holds at most
+ * {@link CrashProperties#executionPrefixCacheSize} executions, and it is disabled when the size is 0.
+ */
+public class PrefixExecutionCache {
+    private static final Logger LOG = LoggerFactory.getLogger(PrefixExecutionCache.class);
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static PrefixExecutionCache instance = null;
+
+    private final LinkedHashMap<Long, CachedExecution> entries;
+    private final int capacity;
+    // Number of statements of the longest cached prefix, so that longer test cases are not hashed to their end
+    private int longestPrefix = 0;
+    private long hits = 0;
+    private long skippedStatements = 0;
+    private long evictions = 0;
+
+    PrefixExecutionCache(int capacity) {
+        this.capacity = capacity;
+        entries = new LinkedHashMap<Long, CachedExecution>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedExecution> eldest) {
+                if (size() > PrefixExecutionCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static synchronized PrefixExecutionCache getInstance() {
+        if (instance == null) {
+            instance = new PrefixExecutionCache(CrashProperties.executionPrefixCacheSize);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the value of the fitness function for the chromosome as {@link FitnessFunction#getFitness(Chromosome)}
+     * does, without executing its test case if the execution of a prefix of it is cached. The new executions are
+     * added to the cache.
+     */
+    public <T extends Chromosome> double getFitness(FitnessFunction<T> fitnessFunction, T chromosome) {
+        if (capacity == 0 || !(chromosome instanceof TestChromosome)) {
+            return fitnessFunction.getFitness(chromosome);
+        }
+        TestChromosome testChromosome = (TestChromosome) chromosome;
+        reuse(testChromosome);
+        ExecutionResult previousResult = testChromosome.getLastExecutionResult();
+        double fitness = fitnessFunction.getFitness(chromosome);
+        ExecutionResult result = testChromosome.getLastExecutionResult();
+        if (result != null && result != previousResult) {
+            store(testChromosome.getTestCase(), result);
+        }
+        return fitness;
+    }
+
+    /**
+     * Gives the chromosome the cached execution of a prefix of its test case, if it needs to be executed and there is
+     * one.
+     * @return true if the chromosome does not need to be executed anymore.
+     */
+    public synchronized boolean reuse(TestChromosome chromosome) {
+        if (capacity == 0 || entries.isEmpty()
+                || (!chromosome.isChanged() && chromosome.getLastExecutionResult() != null)) {
+            return false;
+        }
+        TestCase test = chromosome.getTestCase();
+        int length = Math.min(test.size(), longestPrefix);
+        long hash = FNV_OFFSET_BASIS;
+        for (int position = 0; position < length; position++) {
+            hash = hash(hash, test.getStatement(position).getCode());
+            CachedExecution entry = entries.get(hash);
+            if (entry != null && entry.isPrefixOf(test, position + 1)) {
+                hits++;
+                skippedStatements += position + 1;
+                ExecutionResult result = entry.result.clone();
+                result.setTest(test);
+                chromosome.setLastExecutionResult(result);
+                chromosome.setChanged(false);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Caches the execution of the test case if it stopped at an exception and it only depends on the executed
+     * statements.
+     */
+    synchronized void store(TestCase test, ExecutionResult result) {
+        if (capacity == 0 || !isReusable(result)) {
+            return;
+        }
+        int length = result.getFirstPositionOfThrownException() + 1;
+        if (length > test.size()) {
+            return;
+        }
+        long hash = FNV_OFFSET_BASIS;
+        for (int position = 0; position < length; position++) {
+            hash = hash(hash, test.getStatement(position).getCode());
+        }
+        if (!entries.containsKey(hash)) {
+            TestCase prefix = test.clone();
+            prefix.chop(length);
+            entries.put(hash, new CachedExecution(prefix, result.clone()));
+            longestPrefix = Math.max(longestPrefix, length);
+        }
+    }
+
+    static boolean isReusable(ExecutionResult result) {
+        return Properties.BREAK_ON_EXCEPTION && Properties.RESET_STATIC_FIELDS
+                && result.getFirstPositionOfThrownException() != null
+                && !result.hasTimeout() && !result.hasSecurityException() && !result.wasAnyPropertyWritten();
+    }
+
+    // 64-bit FNV-1a hash of the code of a statement, chained to the hash of the statements before it
+    private static long hash(long hash, String code) {
+        for (byte b : code.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        // Separates the statements
+        hash ^= '\n';
+        hash *= FNV_PRIME;
+        return hash;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        longestPrefix = 0;
+        hits = 0;
+        skippedStatements = 0;
+        evictions = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getSkippedStatements() {
+        return skippedStatements;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized void logStatistics() {
+        if (capacity > 0) {
+            LOG.info("Execution prefix cache: {} reused executions ({} statements not executed), {} evictions, {} cached executions",
+                    hits, skippedStatements, evictions, entries.size());
+        }
+    }
+
+    private static class CachedExecution {
+        private final TestCase prefix;
+        private final ExecutionResult result;
+
+        CachedExecution(TestCase prefix, ExecutionResult result) {
+            this.prefix = prefix;
+            this.result = result;
+        }
+
+        // The code of the statements does not tell apart the variables of the same type, so the hash is confirmed
+        // by comparing the statements and the positions of their variables
+        boolean isPrefixOf(TestCase test, int length) {
+            if (prefix.size() != length) {
+                return false;
+            }
+            for (int position = 0; position < length; position++) {
+                if (!prefix.getStatement(position).same(test.getStatement(position))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
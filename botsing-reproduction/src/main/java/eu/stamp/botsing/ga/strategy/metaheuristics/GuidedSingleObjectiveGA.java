@@ -24,6 +24,8 @@ package eu.stamp.botsing.ga.strategy;
 import eu.stamp.botsing.CrashProperties;
 import eu.stamp.botsing.fitnessfunction.testcase.factories.StackTraceChromosomeFactory;
 import eu.stamp.botsing.fitnessfunction.utils.CrashDistanceEvolution;
+import eu.stamp.botsing.ga.evaluation.EvaluationPool;
+import eu.stamp.botsing.ga.evaluation.FitnessCache;
 import eu.stamp.botsing.ga.strategy.operators.GuidedMutation;
 import eu.stamp.botsing.ga.strategy.operators.GuidedSinglePointCrossover;
 import eu.stamp.botsing.secondaryobjectives.TestCaseSecondaryObjective;
@@ -32,6 +34,7 @@ import org.evosuite.ga.*;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
 import org.evosuite.ga.stoppingconditions.StoppingCondition;
 import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -138,15 +141,18 @@ public class GuidedSingleObjectiveGA<T extends Chromosome> extends GeneticAlgori
             bestFitness = getBestFitness();
             TestChromosome bestTest = (TestChromosome) getBestIndividual();
 
-            LOG.debug("*  The best generated test is: "+bestTest.getTestCase().toCode());
-            LOG.debug("{} thrown exception(s) are detected in the best test case: ",bestTest.getLastExecutionResult().getAllThrownExceptions().size());
-            for(Throwable t: bestTest.getLastExecutionResult().getAllThrownExceptions()){
-                LOG.debug(t.toString());
+            if (LOG.isDebugEnabled()) {
+                ExecutionResult bestResult = EvaluationPool.getExecutionResult(bestTest);
+                LOG.debug("*  The best generated test is: "+bestTest.getTestCase().toCode());
+                LOG.debug("{} thrown exception(s) are detected in the best test case: ",bestResult.getAllThrownExceptions().size());
+                for(Throwable t: bestResult.getAllThrownExceptions()){
+                    LOG.debug(t.toString());
 
-                for(StackTraceElement frame:t.getStackTrace()){
-                    LOG.debug(frame.toString());
-                }
+                    for(StackTraceElement frame:t.getStackTrace()){
+                        LOG.debug(frame.toString());
+                    }
 
+                }
             }
 
             LOG.info("Best fitness in the current population: {} | {}", bestFitness,Properties.POPULATION *generationCounter);
@@ -185,55 +191,40 @@ public class GuidedSingleObjectiveGA<T extends Chromosome> extends GeneticAlgori
         LOG.debug("Selection");
         List<T> newGeneration = new ArrayList<T>(elitism());
 
-        while (newGeneration.size() < this.populationSize && !isFinished()) {
-            LOG.debug("Generating offspring");
-            T parent1 = selectionFunction.select(population);
-            T parent2 = selectionFunction.select(population);
-            T offspring1 = (T) parent1.clone();
-            T offspring2 = (T) parent2.clone();
-            // Crossover
-            if (Randomness.nextDouble() <= Properties.CROSSOVER_RATE) {
-                ((GuidedSinglePointCrossover) crossoverFunction).crossOver(offspring1, offspring2);
+        List<T> parents = new ArrayList<T>();
+        List<T> offspringPopulation = new ArrayList<T>();
+        if (CrashProperties.evaluationWorkers < 2) {
+            // Pair by pair, so that the generation stops as soon as the search is finished
+            while (newGeneration.size() < this.populationSize && !isFinished()) {
+                generateOffspring(parents, offspringPopulation);
+
+                //calculate fitness
+                calculateFitness(offspringPopulation.get(0));
+                calculateFitness(offspringPopulation.get(1));
+
+                replaceParents(newGeneration, parents.get(0), parents.get(1), offspringPopulation.get(0), offspringPopulation.get(1));
+                parents.clear();
+                offspringPopulation.clear();
+            }
+        } else {
+            // All the pairs of the generation, so that the workers evaluate them at the same time
+            while (newGeneration.size() + offspringPopulation.size() < this.populationSize && !isFinished()) {
+                generateOffspring(parents, offspringPopulation);
             }
 
-            // Mutation
-            this.mutation.mutateOffspring(offspring1);
-            notifyMutation(offspring1);
-            this.mutation.mutateOffspring(offspring2);
-            notifyMutation(offspring2);
-
-            //calculate fitness
-            calculateFitness(offspring1);
-            calculateFitness(offspring2);
-
-            // If and only if one of the offsprings is not worse than the best parent, we replace parents by offsprings.
-            if (keepOffspring(parent1, parent2, offspring1, offspring2)) {
-                LOG.debug("Replace parents");
-
-                // Reject offspring straight away if it's too long
-                int rejected = 0;
-                if (isTooLong(offspring1) || offspring1.size() == 0) {
-                    rejected++;
-                } else {
-                    newGeneration.add(offspring1);
-                }
+            //calculate fitness of the whole offspring batch
+            calculateFitness(offspringPopulation);
 
-                if (isTooLong(offspring2) || offspring2.size() == 0) {
-                    rejected++;
-                } else {
-                    newGeneration.add(offspring2);
-                }
+            boolean finished = isFinished();
+            for (int pair = 0; pair < offspringPopulation.size(); pair += 2) {
+                T offspring1 = offspringPopulation.get(pair);
+                T offspring2 = offspringPopulation.get(pair + 1);
+                replaceParents(newGeneration, parents.get(pair), parents.get(pair + 1), offspring1, offspring2);
 
-                if (rejected == 1) {
-                    newGeneration.add(Randomness.choice(parent1, parent2));
-                }else if (rejected == 2) {
-                    newGeneration.add(parent1);
-                    newGeneration.add(parent2);
+                // The pair by pair evaluation would have stopped the generation at the first solution
+                if (finished && (isSolution(offspring1) || isSolution(offspring2))) {
+                    break;
                 }
-            } else {
-                LOG.debug("Keep parents");
-                newGeneration.add(parent1);
-                newGeneration.add(parent2);
             }
         }
 
@@ -244,6 +235,66 @@ public class GuidedSingleObjectiveGA<T extends Chromosome> extends GeneticAlgori
         currentIteration++;
     }
 
+    private void generateOffspring(List<T> parents, List<T> offspringPopulation) {
+        LOG.debug("Generating offspring");
+        T parent1 = selectionFunction.select(population);
+        T parent2 = selectionFunction.select(population);
+        T offspring1 = (T) parent1.clone();
+        T offspring2 = (T) parent2.clone();
+        // Crossover
+        if (Randomness.nextDouble() <= Properties.CROSSOVER_RATE) {
+            ((GuidedSinglePointCrossover) crossoverFunction).crossOver(offspring1, offspring2);
+        }
+
+        // Mutation
+        this.mutation.mutateOffspring(offspring1);
+        notifyMutation(offspring1);
+        this.mutation.mutateOffspring(offspring2);
+        notifyMutation(offspring2);
+
+        parents.add(parent1);
+        parents.add(parent2);
+        offspringPopulation.add(offspring1);
+        offspringPopulation.add(offspring2);
+    }
+
+    private void replaceParents(List<T> newGeneration, T parent1, T parent2, T offspring1, T offspring2) {
+        // If and only if one of the offsprings is not worse than the best parent, we replace parents by offsprings.
+        if (keepOffspring(parent1, parent2, offspring1, offspring2)) {
+            LOG.debug("Replace parents");
+
+            // Reject offspring straight away if it's too long
+            int rejected = 0;
+            if (isTooLong(offspring1) || offspring1.size() == 0) {
+                rejected++;
+            } else {
+                newGeneration.add(offspring1);
+            }
+
+            if (isTooLong(offspring2) || offspring2.size() == 0) {
+                rejected++;
+            } else {
+                newGeneration.add(offspring2);
+            }
+
+            if (rejected == 1) {
+                newGeneration.add(Randomness.choice(parent1, parent2));
+            }else if (rejected == 2) {
+                newGeneration.add(parent1);
+                newGeneration.add(parent2);
+            }
+        } else {
+            LOG.debug("Keep parents");
+            newGeneration.add(parent1);
+            newGeneration.add(parent2);
+        }
+    }
+
+    private boolean isSolution(T chromosome) {
+        FitnessFunction<T> fitnessFunction = fitnessFunctions.get(0);
+        return !fitnessFunction.isMaximizationFunction() && chromosome.getFitness(fitnessFunction) == 0.0;
+    }
+
     protected List<T>  elitism() {
         List<T> elite = new ArrayList<T>();
         LOG.debug("Cloning the best individuals to next generation");
@@ -298,8 +349,17 @@ public class GuidedSingleObjectiveGA<T extends Chromosome> extends GeneticAlgori
     protected void calculateFitness(T chromosome){
         for (FitnessFunction<T> fitnessFunction : fitnessFunctions) {
             notifyEvaluation(chromosome);
-            fitnessFunction.getFitness(chromosome);
+            FitnessCache.getInstance().getFitness(fitnessFunction, chromosome);
+        }
+    }
+
+    protected void calculateFitness(List<T> offspringPopulation){
+        for (T offspring : offspringPopulation) {
+            for (int i = 0; i < fitnessFunctions.size(); i++) {
+                notifyEvaluation(offspring);
+            }
         }
+        EvaluationPool.getInstance().evaluate(offspringPopulation, fitnessFunctions);
     }
 
     private void generatePopulation(int populationSize) {
@@ -4,10 +4,18 @@ import eu.stamp.botsing.CrashProperties;
 import eu.stamp.botsing.StackTrace;
 import eu.stamp.botsing.commons.ga.strategy.operators.Mutation;
 import eu.stamp.botsing.fitnessfunction.NoveltyFunction;
+import eu.stamp.botsing.fitnessfunction.calculator.diversity.CallSignature;
 import eu.stamp.botsing.fitnessfunction.testcase.factories.StackTraceChromosomeFactory;
 import eu.stamp.botsing.fitnessfunction.utils.CrashDistanceEvolution;
 import eu.stamp.botsing.fitnessfunction.utils.WSEvolution;
-
+import eu.stamp.botsing.ga.evaluation.FitnessCache;
+
+import eu.stamp.botsing.ga.strategy.metaheuristics.nslc.ArchiveSparseness;
+import eu.stamp.botsing.ga.strategy.metaheuristics.nslc.CallSignatureIndex;
+import eu.stamp.botsing.ga.strategy.metaheuristics.nslc.DistanceMatrix;
+import eu.stamp.botsing.ga.strategy.metaheuristics.nslc.Generation;
+import eu.stamp.botsing.ga.strategy.metaheuristics.nslc.NearestNeighbours;
+import eu.stamp.botsing.ga.strategy.metaheuristics.nslc.NoveltyArchive;
 import eu.stamp.botsing.ga.strategy.operators.CoverageAndNoveltyBasedSorting;
 import org.evosuite.Properties;
 import org.evosuite.ga.Chromosome;
@@ -26,16 +34,19 @@ public class NoveltySearchLocalCompetition<T extends Chromosome> extends org.evo
     Mutation mutation;
     protected double nicheFactor = 0.0;
     private int nicheSize;//k值
-    protected HashMap<T, List<T>> Niche = null;
-    protected HashMap<T, Double> populationWithNovelty = null;
-    protected HashMap<T, Integer> populationWithLC = null;
     protected double noveltyThreshold;
     protected double epsilon;
     private FitnessFunction<T> crashCoverage = null;
     private final NoveltyFunction<T> noveltyFunction;
     private int populationSize;
     protected List<T> archive = null;
-    protected List<T> union = null;
+    //合并种群，个体由int编号标识
+    protected Generation<T> union = null;
+    protected DistanceMatrix<T> distances = null;
+    protected CallSignature[] signatures = null;
+    protected CallSignatureIndex signatureIndex = null;
+    //跨代保留的有界行为存档，与父代种群分离
+    protected NoveltyArchive noveltyArchive = null;
 
     public NoveltySearchLocalCompetition(ChromosomeFactory<T> factory, CrossOverFunction crossOverOperator, Mutation mutationOperator) {
         super(factory);
@@ -57,6 +68,7 @@ public class NoveltySearchLocalCompetition<T extends Chromosome> extends org.evo
         archive = new ArrayList<>();
         epsilon = CrashProperties.epsilon;
         nicheFactor = CrashProperties.nicheFactor;
+        noveltyArchive = new NoveltyArchive(CrashProperties.noveltyArchiveSize, CrashProperties.noveltyArchiveEviction);
 
     }
 
@@ -96,6 +108,7 @@ public class NoveltySearchLocalCompetition<T extends Chromosome> extends org.evo
             evolve();
             //将子代和父代进行合并
             emerge();
+            calculateDistances();
             LOG.info("Size of Union: {}", union.size());
 
             //求出每个个体与他最近的k个邻居
@@ -118,6 +131,9 @@ public class NoveltySearchLocalCompetition<T extends Chromosome> extends org.evo
                 throw new RuntimeException(e);
             }
             LOG.info("Size of Archive: {}", archive.size());
+            if (noveltyArchive.isEnabled()) {
+                LOG.info("Size of Novelty Archive: {} ({} evictions)", noveltyArchive.size(), noveltyArchive.getEvictions());
+            }
 
             this.notifyIteration();
             this.writeIndividuals(this.archive);
@@ -182,6 +198,7 @@ public class NoveltySearchLocalCompetition<T extends Chromosome> extends org.evo
                 mutation.mutateOffspring(offspring2);
             }
 
+            //子代在搜索线程上评估：合并种群需要每个子代的执行结果，执行器给出的适应度值会在合并时被重新执行
             calculateFitness(offspring1);
             calculateFitness(offspring2);
 
@@ -213,63 +230,69 @@ public class NoveltySearchLocalCompetition<T extends Chromosome> extends org.evo
 
     protected void calculateFitness(T chromosome) {
         notifyEvaluation(chromosome);
-        crashCoverage.getFitness(chromosome);
+        FitnessCache.getInstance().getFitness(crashCoverage, chromosome);
     }
 
     protected void updateArchive() throws Exception {
         //根据新颖性得分和局部竞争目标进行非支配性排序
-        CoverageAndNoveltyBasedSorting<T> sortingOperator = new CoverageAndNoveltyBasedSorting<T>(populationWithNovelty, populationWithLC);
+        CoverageAndNoveltyBasedSorting<T> sortingOperator = new CoverageAndNoveltyBasedSorting<T>(union.getIndividuals(),
+                union.getNoveltyScores(), union.getLocalCompetitions());
         sortingOperator.nondominatedSort();
+        union.setRanks(sortingOperator.getRanks());
 
         List<T> newArchive = new ArrayList<>();
-        List<T> front;
-        int frontSize = sortingOperator.getNumberOfSubfronts() - 1;
+        //增量维护存档成员之间的距离和以及最大疏松度
+        ArchiveSparseness sparseness = new ArchiveSparseness(distances, populationSize);
+        //使用索引时，存档的最近邻查询由增量维护的BK树回答
+        CallSignatureIndex archiveIndex = CrashProperties.noveltyIndex ? new CallSignatureIndex() : null;
+        int[] front;
+        int frontSize = sortingOperator.getNumberOfSubfronts();
         int index = 0;
         while (newArchive.size() < populationSize && index < frontSize) {
-            front = new ArrayList<>(sortingOperator.getSubfront(index));
+            front = sortingOperator.getSubfrontIndices(index);
             int capacity = populationSize - newArchive.size();
-            if (capacity >= front.size()) {
-                newArchive.addAll(front);
+            if (capacity >= front.length) {
+                for (int chromosomeIndex : front) {
+                    addToArchive(chromosomeIndex, newArchive, sparseness, archiveIndex);
+                }
             } else {
                 //update algo
-                for (T chromosome : front) {
+                for (int chromosomeIndex : front) {
                     //计算要加进去的个体与已存在存档中的个体的距离
                     //找出邻居中最近的个体
+                    int closestPosition;
+                    if (archiveIndex != null) {
+                        int nearest = archiveIndex.nearest(signatures[chromosomeIndex], chromosomeIndex);
+                        closestPosition = nearest < 0 ? -1 : sparseness.indexOf(nearest);
+                    } else {
+                        closestPosition = sparseness.nearest(chromosomeIndex);
+                    }
                     double min_d = Double.MAX_VALUE;
-                    T closest = null;
-                    for (T neighbor : newArchive) {
-                        double distance = noveltyFunction.getDistance(chromosome, neighbor);
-                        if (distance < min_d) {
-                            min_d = distance;
-                            closest = neighbor;
-                        }
+                    if (closestPosition >= 0) {
+                        min_d = distances.getDistance(chromosomeIndex, sparseness.getMember(closestPosition));
                     }
 
                     //档案更新
-                    double maxDensity = 0.0;
-                    for (int i = 0; i < newArchive.size(); ++i) {
-                        List<T> niche = new ArrayList<>(newArchive);
-                        niche.remove(i);
-                        double density = noveltyFunction.getNovelty(newArchive.get(i), niche);
-                        if (density > maxDensity) {
-                            maxDensity = density;
-                        }
-                    }
                     //threshold取最大的疏松度（新颖性分数）
-                    noveltyThreshold = maxDensity;
+                    noveltyThreshold = sparseness.getMaxDensity();
 
                     if (min_d > noveltyThreshold) {
                         //如果当前个体与最近邻个体距离大于设定阈值，则直接加入存档
-                        newArchive.add(chromosome);
+                        addToArchive(chromosomeIndex, newArchive, sparseness, archiveIndex);
                         //LOG.info("A new individual is added to archive");
                         if (newArchive.size() >= populationSize) {
                             break;
                         }
-                    } else if (epsilonDominance(chromosome, closest, newArchive)) {
+                    } else if (epsilonDominance(chromosomeIndex, closestPosition, sparseness)) {
                         //如果当前个体满足exclusive e-dominance支配最近邻，那么当前个体替换最近邻
-                        int index1 = newArchive.indexOf(closest);
-                        newArchive.set(index1, chromosome);
-                        //LOG.info("An old individual is replaced by a new one in position {}", index1);
+                        int closestIndex = sparseness.getMember(closestPosition);
+                        newArchive.set(closestPosition, union.get(chromosomeIndex));
+                        sparseness.replace(closestPosition, chromosomeIndex);
+                        if (archiveIndex != null) {
+                            archiveIndex.remove(closestIndex);
+                            archiveIndex.add(chromosomeIndex, signatures[chromosomeIndex]);
+                        }
+                        //LOG.info("An old individual is replaced by a new one in position {}", closestPosition);
                     }
                 }
             }
@@ -277,20 +300,34 @@ public class NoveltySearchLocalCompetition<T extends Chromosome> extends org.evo
         }
         archive.clear();
         archive.addAll(newArchive);
+        //新存档中个体的行为进入跨代的新颖性存档
+        if (noveltyArchive.isEnabled()) {
+            for (int position = 0; position < sparseness.size(); ++position) {
+                int member = sparseness.getMember(position);
+                noveltyArchive.add(signatures[member], union.getNovelty(member));
+            }
+        }
+
+    }
 
+    private void addToArchive(int individualIndex, List<T> newArchive, ArchiveSparseness sparseness, CallSignatureIndex archiveIndex) {
+        newArchive.add(union.get(individualIndex));
+        sparseness.add(individualIndex);
+        if (archiveIndex != null) {
+            archiveIndex.add(individualIndex, signatures[individualIndex]);
+        }
     }
 
-    protected boolean epsilonDominance(T x1, T x2, List<T> pop) {
+    protected boolean epsilonDominance(int x1, int x2Position, ArchiveSparseness sparseness) {
         //exclusive epsilon-dominance
         //使用新颖性得分和FF进行评估
         double e = epsilon;
-        List<T> niche = new ArrayList<>(pop);
-        niche.remove(pop.indexOf(x2));
+        int x2 = sparseness.getMember(x2Position);
 
-        double N1 = noveltyFunction.getNovelty(x1, pop);
-        double N2 = noveltyFunction.getNovelty(x2, niche);
-        double Q1 = -(x1.getFitness());
-        double Q2 = -(x2.getFitness());
+        double N1 = sparseness.getNovelty(x1);
+        double N2 = sparseness.getDensity(x2Position);
+        double Q1 = -(union.getFitness(x1));
+        double Q2 = -(union.getFitness(x2));
         boolean var1 = N1 >= (1 - e) * N2;
         boolean var2 = Q1 >= (1 - e) * Q2;
         boolean var3 = Q2 * (N1 - N2) > (-N2) * (Q1 - Q2);
@@ -299,8 +336,37 @@ public class NoveltySearchLocalCompetition<T extends Chromosome> extends org.evo
 
     protected void emerge() {
         //子代和父代合并
-        union = new ArrayList<>(archive);
-        union.addAll(this.population);
+        List<T> individuals = new ArrayList<>(archive);
+        individuals.addAll(this.population);
+        //合并种群中的个体都已经评估过，只有被修改后才需要重新执行
+        for (T individual : individuals) {
+            if (individual.isChanged()) {
+                FitnessCache.getInstance().getFitness(crashCoverage, individual);
+            }
+        }
+        union = new Generation<>(individuals);
+    }
+
+    protected void calculateDistances() {
+        //每一代的距离只计算一次，供邻域、新颖性和存档更新共享
+        if (CrashProperties.noveltyIndex) {
+            //使用BK树索引时，距离只在被查询时才计算
+            distances = new DistanceMatrix<>(union.getIndividuals(), noveltyFunction);
+            signatures = new CallSignature[union.size()];
+            signatureIndex = new CallSignatureIndex();
+            for (int i = 0; i < union.size(); ++i) {
+                signatures[i] = noveltyFunction.getCallSignature(union.get(i));
+                signatureIndex.add(i, signatures[i]);
+            }
+        } else {
+            distances = new DistanceMatrix<>(union.getIndividuals(), noveltyFunction, CrashProperties.parallelDistanceCalculation);
+            if (noveltyArchive.isEnabled()) {
+                signatures = new CallSignature[union.size()];
+                for (int i = 0; i < union.size(); ++i) {
+                    signatures[i] = noveltyFunction.getCallSignature(union.get(i));
+                }
+            }
+        }
     }
 
     protected void updateNiche() {
@@ -308,39 +374,17 @@ public class NoveltySearchLocalCompetition<T extends Chromosome> extends org.evo
         //邻域大小由合并种群大小以及因子决定
         nicheSize = (int) (union.size() * nicheFactor);
         LOG.info("The size of neighborhood is {}", nicheSize);
-        Niche = new HashMap<T, List<T>>();
         /*
         目标：对于大存档内每个个体而言，找出他们最近的k个邻居
-        1.对大存档内每个个体进行遍历，求出其他个体到这个个体的距离
-        2.把前k个个体放到他的邻域内
+        对大存档内每个个体进行遍历，用有界最大堆从距离矩阵中选出前k个个体的下标，作为他的邻域
          */
-
+        NearestNeighbours nearestNeighbours = new NearestNeighbours(nicheSize);
         for (int i = 0; i < union.size(); ++i) {
-            //散列表用于存储其他个体与当前个体之间的距离
-            HashMap<T, Double> noveltyMap = new HashMap<>();
-
-            //得到除了自己以外的个体的列表
-            List<T> Others = new ArrayList<>(union);
-            Others.remove(i);
-
-            //遍历其他个体，计算当前个体与其他个体的距离
-            for (int j = 0; j < Others.size(); ++j) {
-                double distance = noveltyFunction.getDistance(union.get(i), Others.get(j));
-                noveltyMap.put(Others.get(j), distance);
-            }
-
-            //对其他个体进行距离排序
-            List<Map.Entry<T, Double>> entryList = new ArrayList<>(noveltyMap.entrySet());
-            entryList.sort(Map.Entry.comparingByValue());
-
-            //取出前k个个体，作为当前个体的邻域
-            List<T> neighborhood = new ArrayList<>();
-            for (int k = 0; k < nicheSize; ++k) {
-                neighborhood.add(entryList.get(k).getKey());
+            if (CrashProperties.noveltyIndex) {
+                union.setNeighbours(i, signatureIndex.kNearest(signatures[i], nearestNeighbours, i));
+            } else {
+                union.setNeighbours(i, nearestNeighbours.select(distances, i));
             }
-
-            //按照个体->邻域的对应关系进行存储
-            Niche.put(union.get(i), neighborhood);
         }
 
     }
@@ -348,41 +392,46 @@ public class NoveltySearchLocalCompetition<T extends Chromosome> extends org.evo
     protected void calculateNovelty() throws Exception {
         //f1的计算
         //计算每个个体的新颖性得分
-        LOG.debug("Calculating novelty score for " + this.Niche.size() + " individuals");
-        populationWithNovelty = new HashMap<T, Double>();
-        if (Niche.isEmpty()) {
+        LOG.debug("Calculating novelty score for " + union.size() + " individuals");
+        if (union.size() == 0) {
             LOG.warn("Niche is empty");
             throw new Exception("Niche is empty!");
         }
-        for (Map.Entry<T, List<T>> individual : Niche.entrySet()) {
-            List<T> list = individual.getValue();
-            Double novelty = noveltyFunction.getNovelty(individual.getKey(), list);
+        for (int i = 0; i < union.size(); ++i) {
+            int[] neighbours = union.getNeighbours(i);
             //该population实际大小是big-archive的大小
-            //即对big-archive的每个个体都进行新颖性计算后得到的个体和他们对应的新颖值
-            populationWithNovelty.put(individual.getKey(), novelty);
+            //即对big-archive的每个个体都进行新颖性计算后得到的新颖值
+            if (noveltyArchive.isEnabled()) {
+                //新颖性同时相对于当前合并种群和历史行为存档计算
+                double[] neighbourDistances = new double[neighbours.length];
+                for (int j = 0; j < neighbours.length; ++j) {
+                    neighbourDistances[j] = distances.getDistance(i, neighbours[j]);
+                }
+                union.setNovelty(i, noveltyArchive.getNovelty(signatures[i], neighbourDistances, neighbours.length));
+            } else {
+                union.setNovelty(i, distances.getNovelty(i, neighbours, neighbours.length));
+            }
         }
     }
 
     protected void calculateLocalCompetition() {
         //对每个个体进行局部空间的竞争值计算
-        LOG.debug("Calculating local competition for {} individuals", this.Niche.size());
-        populationWithLC = new HashMap<>();
+        LOG.debug("Calculating local competition for {} individuals", union.size());
         /*
         1.遍历每个个体和他的k个邻居
         2.计算比较个体和邻居的适应度数值，并记录比个体更差的个数
-        3.将个体和更有个数作为键值对放到新的散列表进行下一步操作
+        3.将更优个数记录在个体编号对应的位置，进行下一步操作
          */
 
-        for (Map.Entry<T, List<T>> individualAndNeighbor : Niche.entrySet()) {
-            T individual = individualAndNeighbor.getKey();
+        for (int i = 0; i < union.size(); ++i) {
             //obtain FF value
-            double f1 = individual.getFitness();
-            List<T> neighbors = individualAndNeighbor.getValue();
+            double f1 = union.getFitness(i);
+            int[] neighbors = union.getNeighbours(i);
             //比当前个体更差的个体数
             int worseCtr = 0;
             worseCtr = calculateWorseCtr(neighbors, f1, worseCtr);
 
-            populationWithLC.put(individual, worseCtr);
+            union.setLocalCompetition(i, worseCtr);
         }
 
     }
@@ -404,10 +453,9 @@ public class NoveltySearchLocalCompetition<T extends Chromosome> extends org.evo
         return bestIndividual;
     }
 
-    protected int calculateWorseCtr(List<T> neighborhood, double f1, int worseCtr) {
-        for (int j = 0; j < neighborhood.size(); ++j) {
-            crashCoverage.getFitness(neighborhood.get(j));
-            double f2 = neighborhood.get(j).getFitness();
+    protected int calculateWorseCtr(int[] neighborhood, double f1, int worseCtr) {
+        for (int j = 0; j < neighborhood.length; ++j) {
+            double f2 = union.getFitness(neighborhood[j]);
             int flag = Double.compare(f1, f2);
             if (flag < 0) {
                 //当前个体更优
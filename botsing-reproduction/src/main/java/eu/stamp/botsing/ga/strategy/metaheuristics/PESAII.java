@@ -10,6 +10,7 @@ import eu.stamp.botsing.fitnessfunction.calculator.diversity.HammingDiversity;
 import eu.stamp.botsing.fitnessfunction.testcase.factories.StackTraceChromosomeFactory;
 import eu.stamp.botsing.fitnessfunction.utils.WSEvolution;
 import eu.stamp.botsing.ga.GAUtil;
+import eu.stamp.botsing.ga.evaluation.EvaluationPool;
 import eu.stamp.botsing.ga.strategy.archive.GridArchive;
 import eu.stamp.botsing.ga.strategy.operators.selection.PESAIISelection;
 import org.evosuite.Properties;
@@ -160,9 +161,7 @@ public class PESAII<T extends Chromosome> extends GeneticAlgorithm<T> {
 
             // Fitness Function Evaluation except diversity
             // If we have diversity search objective, we will calculate its fitness values before archive update
-            for (T element : offspringPopulation) {
-                this.calculateFitness(element,false);
-            }
+            this.evaluateBatch(offspringPopulation);
 
 
         // Replacement
@@ -187,9 +186,7 @@ public class PESAII<T extends Chromosome> extends GeneticAlgorithm<T> {
 
         // Fitness Function Evaluation except diversity
         // If we have diversity search objective, we will calculate its fitness values before archive update
-        for (T element : this.population) {
-            this.calculateFitness(element,false);
-        }
+        this.evaluateBatch(this.population);
 
         this.notifyIteration();
 
@@ -230,6 +227,18 @@ public class PESAII<T extends Chromosome> extends GeneticAlgorithm<T> {
         throw new IllegalStateException("The GA algorithm does not have call diversity fitness function.");
     }
 
+    // Fitness function evaluation (excluding callDiversity) of a whole batch of individuals
+    private void evaluateBatch(List<T> offspringPopulation) {
+        EvaluationPool.getInstance().evaluate(offspringPopulation, fitnessFunctions, fitnessFunction -> !(fitnessFunction instanceof CallDiversity));
+        for (T offspring : offspringPopulation) {
+            for (FitnessFunction<T> fitnessFunction :fitnessFunctions){
+                if (!(fitnessFunction instanceof CallDiversity)){
+                    this.notifyEvaluation(offspring);
+                }
+            }
+        }
+    }
+
     private void calculateFitness(T offspring, boolean calculateDiversity) {
 
 
@@ -12,6 +12,7 @@ import eu.stamp.botsing.fitnessfunction.calculator.diversity.HammingDiversity;
 import eu.stamp.botsing.fitnessfunction.testcase.factories.StackTraceChromosomeFactory;
 import eu.stamp.botsing.fitnessfunction.utils.WSEvolution;
 import eu.stamp.botsing.ga.GAUtil;
+import eu.stamp.botsing.ga.evaluation.EvaluationPool;
 import org.evosuite.Properties;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.ChromosomeFactory;
@@ -101,9 +102,7 @@ public class SPEA2<T extends Chromosome> extends org.evosuite.ga.metaheuristics.
 
         // Fitness function evaluation (excluding callDiversity) for individuals in the initial population.
         // CallDiversity will be calculated in updateArchive
-        for (T element : offspringPopulation) {
-            this.calculateFitness(element,false);
-        }
+        this.evaluateBatch(offspringPopulation);
 
 
         // Replacement
@@ -212,9 +211,7 @@ public class SPEA2<T extends Chromosome> extends org.evosuite.ga.metaheuristics.
 
         // Fitness function evaluation (excluding callDiversity) for individuals in the initial population.
         // CallDiversity will be calculated in updateArchive
-        for (T element : this.population) {
-            this.calculateFitness(element,false);
-        }
+        this.evaluateBatch(this.population);
 
         this.updateArchive();
 
@@ -263,6 +260,25 @@ public class SPEA2<T extends Chromosome> extends org.evosuite.ga.metaheuristics.
         throw new IllegalStateException("The GA algorithm does not have call diversity fitness function.");
     }
 
+    // Fitness function evaluation (excluding callDiversity) of a whole batch of individuals
+    private void evaluateBatch(List<T> offspringPopulation) {
+        EvaluationPool.getInstance().evaluate(offspringPopulation, fitnessFunctions, fitnessFunction -> !(fitnessFunction instanceof CallDiversity));
+        boolean multiObjectivization = FitnessFunctionHelper.containsFitness(CrashProperties.FitnessFunction.LineCoverage) &&
+                FitnessFunctionHelper.containsFitness(CrashProperties.FitnessFunction.ExceptionType) &&
+                FitnessFunctionHelper.containsFitness(CrashProperties.FitnessFunction.StackTraceSimilarity);
+        for (T offspring : offspringPopulation) {
+            for (FitnessFunction<T> fitnessFunction :fitnessFunctions){
+                if (!(fitnessFunction instanceof CallDiversity)){
+                    this.notifyEvaluation(offspring);
+                }
+            }
+            // Update WSEvolution if we are running a multi-objectivization search
+            if (multiObjectivization) {
+                GAUtil.informWSEvolution(offspring);
+            }
+        }
+    }
+
     private void calculateFitness(T offspring, boolean calculateDiversity) {
         if(calculateDiversity){
             calculateFitness(offspring);
@@ -0,0 +1,128 @@
+package eu.stamp.botsing.ga.strategy.metaheuristics.nslc;
+
+import java.util.Arrays;
+
+/**
+ * Keeps, for each member of the NSLC archive under construction, the sum of its distances to the other members.
+ * The sums and the maximum density (i.e., the largest average distance of a member to the rest of the archive) are
+ * updated in O(archive) when a member is added or replaced, instead of recalculating all the archive novelties.
+ * Members are identified by their index in the distance matrix of the generation.
+ */
+public class ArchiveSparseness {
+
+    private final DistanceMatrix<?> distances;
+    private int[] members;
+    private double[] distanceSums;
+    private int size = 0;
+    private double maxDensity = 0.0;
+
+    public ArchiveSparseness(DistanceMatrix<?> distances, int capacity) {
+        this.distances = distances;
+        members = new int[Math.max(capacity, 1)];
+        distanceSums = new double[members.length];
+    }
+
+    public void add(int individual) {
+        if (size == members.length) {
+            members = Arrays.copyOf(members, size * 2);
+            distanceSums = Arrays.copyOf(distanceSums, size * 2);
+        }
+        double sum = 0.0;
+        for (int position = 0; position < size; position++) {
+            double distance = distances.getDistance(individual, members[position]);
+            distanceSums[position] += distance;
+            sum += distance;
+        }
+        members[size] = individual;
+        distanceSums[size] = sum;
+        size++;
+        updateMaxDensity();
+    }
+
+    /**
+     * Replaces the member at the given position of the archive with a new individual.
+     */
+    public void replace(int position, int individual) {
+        int old = members[position];
+        double sum = 0.0;
+        for (int other = 0; other < size; other++) {
+            if (other == position) {
+                continue;
+            }
+            double distance = distances.getDistance(individual, members[other]);
+            distanceSums[other] += distance - distances.getDistance(old, members[other]);
+            sum += distance;
+        }
+        members[position] = individual;
+        distanceSums[position] = sum;
+        updateMaxDensity();
+    }
+
+    private void updateMaxDensity() {
+        maxDensity = 0.0;
+        for (int position = 0; position < size; position++) {
+            maxDensity = Math.max(maxDensity, getDensity(position));
+        }
+    }
+
+    /**
+     * Average distance of the member at the given position to the other members of the archive.
+     */
+    public double getDensity(int position) {
+        if (size < 2) {
+            return 0.0;
+        }
+        return distanceSums[position] / (size - 1);
+    }
+
+    public double getMaxDensity() {
+        return maxDensity;
+    }
+
+    /**
+     * Average distance of an individual that is not in the archive to all the members of the archive.
+     */
+    public double getNovelty(int individual) {
+        if (size == 0) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (int position = 0; position < size; position++) {
+            sum += distances.getDistance(individual, members[position]);
+        }
+        return sum / size;
+    }
+
+    /**
+     * Position in the archive of the nearest member to the given individual, or -1 if the archive is empty.
+     */
+    public int nearest(int individual) {
+        int nearest = -1;
+        double minDistance = Double.MAX_VALUE;
+        for (int position = 0; position < size; position++) {
+            double distance = distances.getDistance(individual, members[position]);
+            if (distance < minDistance) {
+                minDistance = distance;
+                nearest = position;
+            }
+        }
+        return nearest;
+    }
+
+    public int indexOf(int individual) {
+        for (int position = 0; position < size; position++) {
+            if (members[position] == individual) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    public int getMember(int position) {
+        return members[position];
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,132 @@
+package eu.stamp.botsing.ga.strategy.metaheuristics.nslc;
+
+import eu.stamp.botsing.fitnessfunction.calculator.diversity.CallSignature;
+
+import java.util.Arrays;
+
+/**
+ * BK-tree over call signatures with the hamming distance as metric. Since call signatures are 0/1 vectors, the
+ * euclidean distance used by the novelty function is the square root of the hamming distance, so both orders the
+ * neighbours the same way.
+ * Entries are identified by an int id (e.g., a position in the NSLC union). Removed entries stay in the tree as
+ * tombstones and are skipped by the queries.
+ */
+public class CallSignatureIndex {
+
+    private static final int NONE = -1;
+
+    private int size = 0;
+    private int liveEntries = 0;
+    private int[] ids = new int[16];
+    private CallSignature[] signatures = new CallSignature[16];
+    private boolean[] removed = new boolean[16];
+    // Children of a node are linked through firstChild/nextSibling, and labelled with their distance to the parent
+    private int[] firstChild = new int[16];
+    private int[] nextSibling = new int[16];
+    private int[] distanceToParent = new int[16];
+    private int[] stack = new int[16];
+
+    public void add(int id, CallSignature signature) {
+        ensureCapacity(size + 1);
+        int node = size++;
+        ids[node] = id;
+        signatures[node] = signature;
+        removed[node] = false;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        liveEntries++;
+        if (node == 0) {
+            return;
+        }
+
+        int parent = 0;
+        while (true) {
+            int distance = signature.hammingDistance(signatures[parent]);
+            int child = firstChild[parent];
+            while (child != NONE && distanceToParent[child] != distance) {
+                child = nextSibling[child];
+            }
+            if (child == NONE) {
+                distanceToParent[node] = distance;
+                nextSibling[node] = firstChild[parent];
+                firstChild[parent] = node;
+                return;
+            }
+            parent = child;
+        }
+    }
+
+    /**
+     * Removes all the entries with the given id.
+     */
+    public void remove(int id) {
+        for (int node = 0; node < size; node++) {
+            if (ids[node] == id && !removed[node]) {
+                removed[node] = true;
+                liveEntries--;
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of the (at most) k nearest entries to the given signature, sorted by increasing distance.
+     * Ties are broken by the smaller id, and the excluded id is never returned.
+     */
+    public int[] kNearest(CallSignature query, int k, int excluded) {
+        return search(query, new NearestNeighbours(k), excluded);
+    }
+
+    public int[] kNearest(CallSignature query, NearestNeighbours neighbours, int excluded) {
+        return search(query, neighbours, excluded);
+    }
+
+    /**
+     * Returns the id of the nearest entry to the given signature, or -1 if the index has no other entry.
+     */
+    public int nearest(CallSignature query, int excluded) {
+        int[] nearest = search(query, new NearestNeighbours(1), excluded);
+        return nearest.length == 0 ? NONE : nearest[0];
+    }
+
+    private int[] search(CallSignature query, NearestNeighbours neighbours, int excluded) {
+        neighbours.clear();
+        if (size == 0 || neighbours.getK() == 0) {
+            return neighbours.drain();
+        }
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int distance = query.hammingDistance(signatures[node]);
+            if (!removed[node] && ids[node] != excluded) {
+                neighbours.offer(distance, ids[node]);
+            }
+            double radius = neighbours.isFull() ? neighbours.farthestDistance() : Double.MAX_VALUE;
+            // By the triangle inequality, only the children whose label is within radius of distance can be closer
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                if (Math.abs(distanceToParent[child] - distance) <= radius) {
+                    stack[top++] = child;
+                }
+            }
+        }
+        return neighbours.drain();
+    }
+
+    public int size() {
+        return liveEntries;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, newCapacity);
+        signatures = Arrays.copyOf(signatures, newCapacity);
+        removed = Arrays.copyOf(removed, newCapacity);
+        firstChild = Arrays.copyOf(firstChild, newCapacity);
+        nextSibling = Arrays.copyOf(nextSibling, newCapacity);
+        distanceToParent = Arrays.copyOf(distanceToParent, newCapacity);
+        stack = Arrays.copyOf(stack, newCapacity);
+    }
+}
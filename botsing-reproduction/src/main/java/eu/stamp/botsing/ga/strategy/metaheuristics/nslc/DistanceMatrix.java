@@ -0,0 +1,113 @@
+package eu.stamp.botsing.ga.strategy.metaheuristics.nslc;
+
+import eu.stamp.botsing.fitnessfunction.NoveltyFunction;
+import org.evosuite.ga.Chromosome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Symmetric matrix of the pairwise distances between the individuals of one NSLC generation.
+ * Individuals are addressed by their position in the list given to the constructor, and every distance is
+ * calculated at most once. Only the strict upper triangle is stored, in a single primitive array.
+ * A matrix is either filled when it is created, or lazily when a distance is asked for the first time. Lazy matrices
+ * are not thread-safe.
+ */
+public class DistanceMatrix<T extends Chromosome> {
+    private static final Logger LOG = LoggerFactory.getLogger(DistanceMatrix.class);
+
+    private final List<T> individuals;
+    private final int size;
+    private final double[] distances;
+    private final NoveltyFunction<T> noveltyFunction;
+    private final boolean lazy;
+
+    /**
+     * Creates a lazily filled matrix.
+     */
+    public DistanceMatrix(List<T> individuals, NoveltyFunction<T> noveltyFunction) {
+        this.individuals = new ArrayList<>(individuals);
+        this.size = this.individuals.size();
+        this.distances = new double[size * (size - 1) / 2];
+        this.noveltyFunction = noveltyFunction;
+        this.lazy = true;
+        Arrays.fill(distances, Double.NaN);
+    }
+
+    public DistanceMatrix(List<T> individuals, NoveltyFunction<T> noveltyFunction, boolean parallel) {
+        this.individuals = new ArrayList<>(individuals);
+        this.size = this.individuals.size();
+        this.distances = new double[size * (size - 1) / 2];
+        this.noveltyFunction = noveltyFunction;
+        this.lazy = false;
+        LOG.debug("Calculating {} pairwise distances for {} individuals", distances.length, size);
+        IntStream rows = IntStream.range(0, size);
+        if (parallel) {
+            rows = rows.parallel();
+        }
+        rows.forEach(this::fillRow);
+    }
+
+    private void fillRow(int row) {
+        T individual = individuals.get(row);
+        int offset = offset(row);
+        for (int column = row + 1; column < size; column++) {
+            distances[offset + column] = noveltyFunction.getDistance(individual, individuals.get(column));
+        }
+    }
+
+    // Position of (row, 0) in the packed upper triangle, so that (row, column) is at offset(row) + column.
+    private int offset(int row) {
+        return row * size - row * (row + 1) / 2 - row - 1;
+    }
+
+    public double getDistance(int first, int second) {
+        if (first == second) {
+            return 0.0;
+        }
+        int position = first > second ? offset(second) + first : offset(first) + second;
+        if (lazy && Double.isNaN(distances[position])) {
+            distances[position] = noveltyFunction.getDistance(individuals.get(first), individuals.get(second));
+        }
+        return distances[position];
+    }
+
+    /**
+     * Copies the distances of the given individual to all the individuals of the matrix into row.
+     */
+    public void getRow(int individual, double[] row) {
+        for (int other = 0; other < size; other++) {
+            row[other] = getDistance(individual, other);
+        }
+    }
+
+    /**
+     * Average distance of the given individual to the first count individuals in others.
+     */
+    public double getNovelty(int individual, int[] others, int count) {
+        if (count == 0) {
+            return 0.0;
+        }
+        double distance = 0.0;
+        for (int index = 0; index < count; index++) {
+            distance += getDistance(individual, others[index]);
+        }
+        return distance / count;
+    }
+
+    public T get(int index) {
+        return individuals.get(index);
+    }
+
+    public List<T> getIndividuals() {
+        return individuals;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,102 @@
+package eu.stamp.botsing.ga.strategy.metaheuristics.nslc;
+
+import org.evosuite.ga.Chromosome;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The individuals of one NSLC generation (i.e., the union of the archive and the offspring) with their scores, stored
+ * as a struct of arrays. An individual is identified by its int id, which is its position in the list given to the
+ * constructor, so that two identical test cases never share their scores.
+ */
+public class Generation<T extends Chromosome> {
+
+    private final List<T> individuals;
+    private final double[] fitness;
+    private final double[] novelty;
+    private final int[] localCompetition;
+    private final int[] rank;
+    private final int[][] neighbours;
+
+    /**
+     * Creates a generation of evaluated individuals. Their fitness values are read once here.
+     */
+    public Generation(List<T> individuals) {
+        this.individuals = new ArrayList<>(individuals);
+        int size = this.individuals.size();
+        fitness = new double[size];
+        novelty = new double[size];
+        localCompetition = new int[size];
+        rank = new int[size];
+        neighbours = new int[size][];
+        for (int id = 0; id < size; id++) {
+            fitness[id] = this.individuals.get(id).getFitness();
+        }
+    }
+
+    public T get(int id) {
+        return individuals.get(id);
+    }
+
+    public List<T> getIndividuals() {
+        return individuals;
+    }
+
+    public int size() {
+        return individuals.size();
+    }
+
+    public double getFitness(int id) {
+        return fitness[id];
+    }
+
+    public double getNovelty(int id) {
+        return novelty[id];
+    }
+
+    public void setNovelty(int id, double value) {
+        novelty[id] = value;
+    }
+
+    public int getLocalCompetition(int id) {
+        return localCompetition[id];
+    }
+
+    public void setLocalCompetition(int id, int value) {
+        localCompetition[id] = value;
+    }
+
+    public int getRank(int id) {
+        return rank[id];
+    }
+
+    public void setRanks(int[] ranks) {
+        System.arraycopy(ranks, 0, rank, 0, rank.length);
+    }
+
+    /**
+     * Ids of the neighbours of the individual, sorted by increasing distance.
+     */
+    public int[] getNeighbours(int id) {
+        return neighbours[id];
+    }
+
+    public void setNeighbours(int id, int[] ids) {
+        neighbours[id] = ids;
+    }
+
+    /**
+     * Novelty scores of all the individuals, indexed by id. The returned array is the one of the generation.
+     */
+    public double[] getNoveltyScores() {
+        return novelty;
+    }
+
+    /**
+     * Local competition counts of all the individuals, indexed by id. The returned array is the one of the generation.
+     */
+    public int[] getLocalCompetitions() {
+        return localCompetition;
+    }
+}
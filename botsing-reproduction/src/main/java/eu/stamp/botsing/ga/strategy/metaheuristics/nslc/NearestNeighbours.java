@@ -0,0 +1,138 @@
+package eu.stamp.botsing.ga.strategy.metaheuristics.nslc;
+
+/**
+ * Selects the k nearest neighbours of an individual with a bounded max-heap, in O(n log k) time and without
+ * boxing. The heap buffers are reused between queries, so one instance must not be shared between threads.
+ */
+public class NearestNeighbours {
+
+    private final int k;
+    private final double[] heapDistances;
+    private final int[] heapIndices;
+    private int heapSize;
+
+    public NearestNeighbours(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("The number of neighbours cannot be negative");
+        }
+        this.k = k;
+        heapDistances = new double[k];
+        heapIndices = new int[k];
+    }
+
+    /**
+     * Returns the indices of the (at most) k nearest individuals to the given one in the distance matrix, sorted
+     * by increasing distance. Ties are broken by the smaller index.
+     */
+    public int[] select(DistanceMatrix<?> distances, int individual) {
+        clear();
+        for (int other = 0; other < distances.size(); other++) {
+            if (other != individual) {
+                offer(distances.getDistance(individual, other), other);
+            }
+        }
+        return drain();
+    }
+
+    /**
+     * Same as {@link #select(DistanceMatrix, int)}, over a row of distances. The excluded position is skipped.
+     */
+    public int[] select(double[] row, int excluded) {
+        clear();
+        for (int other = 0; other < row.length; other++) {
+            if (other != excluded) {
+                offer(row[other], other);
+            }
+        }
+        return drain();
+    }
+
+    int getK() {
+        return k;
+    }
+
+    void clear() {
+        heapSize = 0;
+    }
+
+    // Never full with k = 0: there is no farthest neighbour to compare with
+    boolean isFull() {
+        return heapSize > 0 && heapSize == k;
+    }
+
+    // Distance of the farthest neighbour kept so far
+    double farthestDistance() {
+        return heapDistances[0];
+    }
+
+    void offer(double distance, int index) {
+        if (heapSize < k) {
+            heapDistances[heapSize] = distance;
+            heapIndices[heapSize] = index;
+            siftUp(heapSize++);
+        } else if (k > 0 && isFarther(heapDistances[0], heapIndices[0], distance, index)) {
+            heapDistances[0] = distance;
+            heapIndices[0] = index;
+            siftDown(0);
+        }
+    }
+
+    // Pops the heap from the farthest neighbour to the nearest one.
+    int[] drain() {
+        int[] neighbours = new int[heapSize];
+        for (int position = heapSize - 1; position >= 0; position--) {
+            neighbours[position] = heapIndices[0];
+            heapSize--;
+            if (heapSize > 0) {
+                heapDistances[0] = heapDistances[heapSize];
+                heapIndices[0] = heapIndices[heapSize];
+                siftDown(0);
+            }
+        }
+        return neighbours;
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!isFarther(heapDistances[position], heapIndices[position], heapDistances[parent], heapIndices[parent])) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int farthest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < heapSize && isFarther(heapDistances[left], heapIndices[left], heapDistances[farthest], heapIndices[farthest])) {
+                farthest = left;
+            }
+            if (right < heapSize && isFarther(heapDistances[right], heapIndices[right], heapDistances[farthest], heapIndices[farthest])) {
+                farthest = right;
+            }
+            if (farthest == position) {
+                return;
+            }
+            swap(position, farthest);
+            position = farthest;
+        }
+    }
+
+    private static boolean isFarther(double distance1, int index1, double distance2, int index2) {
+        int flag = Double.compare(distance1, distance2);
+        return flag > 0 || (flag == 0 && index1 > index2);
+    }
+
+    private void swap(int first, int second) {
+        double distance = heapDistances[first];
+        heapDistances[first] = heapDistances[second];
+        heapDistances[second] = distance;
+        int index = heapIndices[first];
+        heapIndices[first] = heapIndices[second];
+        heapIndices[second] = index;
+    }
+}
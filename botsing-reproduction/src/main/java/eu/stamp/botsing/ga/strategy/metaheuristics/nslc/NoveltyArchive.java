@@ -0,0 +1,239 @@
+package eu.stamp.botsing.ga.strategy.metaheuristics.nslc;
+
+import eu.stamp.botsing.CrashProperties.NoveltyArchiveEviction;
+import eu.stamp.botsing.fitnessfunction.calculator.diversity.CallSignature;
+import org.evosuite.utils.Randomness;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Bounded archive of the behaviours (i.e., call signatures) met during the whole NSLC search, against which the
+ * novelty of the individuals is measured. Unlike the archive of the elites, which is the next parent population and
+ * is rebuilt every generation, this archive only grows until it reaches its capacity. Then, every new behaviour
+ * evicts a stored one (or itself) according to the eviction policy, so that its memory stays flat over long searches.
+ * The distance between two behaviours is the euclidean distance of their call signatures, as in
+ * {@link eu.stamp.botsing.fitnessfunction.NoveltyFunction}.
+ */
+public class NoveltyArchive {
+
+    private final int capacity;
+    private final NoveltyArchiveEviction eviction;
+
+    private final CallSignature[] behaviours;
+    // Novelty of each behaviour when it was added
+    private final double[] novelty;
+    // Distance of each behaviour to its nearest stored behaviour, and the slot of the latter (crowding policy only)
+    private final double[] nearestDistance;
+    private final int[] nearestSlot;
+    private final Set<CallSignature> stored;
+
+    private int size = 0;
+    private long additions = 0;
+    private long evictions = 0;
+
+    public NoveltyArchive(int capacity, NoveltyArchiveEviction eviction) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity of the novelty archive cannot be negative");
+        }
+        this.capacity = capacity;
+        this.eviction = eviction;
+        behaviours = new CallSignature[capacity];
+        novelty = new double[capacity];
+        nearestDistance = new double[capacity];
+        nearestSlot = new int[capacity];
+        stored = new HashSet<>();
+    }
+
+    /**
+     * Adds a behaviour with its novelty score. Behaviours that are already stored are ignored.
+     * @return true if the behaviour is stored in the archive.
+     */
+    public boolean add(CallSignature behaviour, double noveltyScore) {
+        if (capacity == 0 || stored.contains(behaviour)) {
+            return false;
+        }
+        double[] distances = eviction == NoveltyArchiveEviction.CROWDING ? distancesTo(behaviour) : null;
+        int slot;
+        if (size < capacity) {
+            slot = size++;
+        } else {
+            slot = selectVictim(noveltyScore, distances);
+            evictions++;
+            if (slot < 0) {
+                // The new behaviour is the one to evict
+                return false;
+            }
+            stored.remove(behaviours[slot]);
+        }
+        behaviours[slot] = behaviour;
+        novelty[slot] = noveltyScore;
+        additions++;
+        stored.add(behaviour);
+        if (distances != null) {
+            updateNearest(slot, distances);
+        }
+        return true;
+    }
+
+    // Slot of the behaviour to evict, or -1 if the candidate behaviour should not be stored
+    private int selectVictim(double candidateNovelty, double[] candidateDistances) {
+        switch (eviction) {
+            case LEAST_NOVEL:
+                int leastNovel = argMin(novelty);
+                return novelty[leastNovel] < candidateNovelty ? leastNovel : -1;
+            case RANDOM:
+                return Randomness.nextInt(size);
+            case CROWDING:
+                // One of the two closest behaviours leaves, the one whose other neighbours are the closest
+                int crowded = argMin(nearestDistance);
+                double candidateNearest = min(candidateDistances);
+                if (candidateNearest < nearestDistance[crowded]) {
+                    return -1;
+                }
+                int other = nearestSlot[crowded];
+                return secondNearest(other, crowded) < secondNearest(crowded, other) ? other : crowded;
+            case OLDEST:
+            default:
+                // Every behaviour is stored under this policy, so the slots are filled and replaced in turn
+                return (int) (additions % capacity);
+        }
+    }
+
+    private double[] distancesTo(CallSignature behaviour) {
+        double[] distances = new double[size];
+        for (int slot = 0; slot < size; slot++) {
+            distances[slot] = distance(behaviour, behaviours[slot]);
+        }
+        return distances;
+    }
+
+    // Keeps the nearest neighbours up to date after the behaviour in the given slot has been replaced
+    private void updateNearest(int slot, double[] distances) {
+        nearestDistance[slot] = Double.POSITIVE_INFINITY;
+        nearestSlot[slot] = -1;
+        for (int other = 0; other < size; other++) {
+            if (other == slot) {
+                continue;
+            }
+            double distance = distances[other];
+            if (distance < nearestDistance[slot]) {
+                nearestDistance[slot] = distance;
+                nearestSlot[slot] = other;
+            }
+            if (nearestSlot[other] == slot) {
+                // The previous nearest neighbour has been evicted
+                recomputeNearest(other);
+            } else if (distance < nearestDistance[other]) {
+                nearestDistance[other] = distance;
+                nearestSlot[other] = slot;
+            }
+        }
+    }
+
+    private void recomputeNearest(int slot) {
+        nearestDistance[slot] = Double.POSITIVE_INFINITY;
+        nearestSlot[slot] = -1;
+        for (int other = 0; other < size; other++) {
+            if (other != slot) {
+                double distance = distance(behaviours[slot], behaviours[other]);
+                if (distance < nearestDistance[slot]) {
+                    nearestDistance[slot] = distance;
+                    nearestSlot[slot] = other;
+                }
+            }
+        }
+    }
+
+    // Distance of the behaviour in the given slot to its nearest neighbour, the excluded one apart
+    private double secondNearest(int slot, int excluded) {
+        double nearest = Double.POSITIVE_INFINITY;
+        for (int other = 0; other < size; other++) {
+            if (other != slot && other != excluded) {
+                nearest = Math.min(nearest, distance(behaviours[slot], behaviours[other]));
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Novelty of a behaviour measured against both its neighbours in the current generation and the archive, i.e.,
+     * the average of the count smallest distances among the given ones and the distances to the stored behaviours.
+     * The stored behaviour equal to the given one, if any, is not counted since it may be the one of the individual.
+     * @param neighbourDistances distances to the neighbours in the current generation, sorted by increasing distance.
+     */
+    public double getNovelty(CallSignature behaviour, double[] neighbourDistances, int count) {
+        double[] archived = distancesTo(behaviour);
+        Arrays.sort(archived);
+        // The equal behaviour is the only one at distance 0
+        int fromArchive = contains(behaviour) ? 1 : 0;
+        int total = Math.min(count, neighbourDistances.length + archived.length - fromArchive);
+        if (total == 0) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        int fromNeighbours = 0;
+        for (int index = 0; index < total; index++) {
+            if (fromArchive == archived.length
+                    || (fromNeighbours < neighbourDistances.length && neighbourDistances[fromNeighbours] <= archived[fromArchive])) {
+                sum += neighbourDistances[fromNeighbours++];
+            } else {
+                sum += archived[fromArchive++];
+            }
+        }
+        return sum / total;
+    }
+
+    static double distance(CallSignature first, CallSignature second) {
+        return Math.sqrt(first.hammingDistance(second));
+    }
+
+    private int argMin(double[] values) {
+        int min = 0;
+        for (int slot = 1; slot < size; slot++) {
+            if (values[slot] < values[min]) {
+                min = slot;
+            }
+        }
+        return min;
+    }
+
+    private static double min(double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        for (double value : values) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    public boolean contains(CallSignature behaviour) {
+        return stored.contains(behaviour);
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Number of behaviours stored since the creation of the archive, including the evicted ones.
+     */
+    public long getAdditions() {
+        return additions;
+    }
+
+    /**
+     * Number of behaviours dropped because the archive was full, including the new ones that were not stored.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+}
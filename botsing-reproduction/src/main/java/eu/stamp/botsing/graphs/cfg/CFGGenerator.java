@@ -19,7 +19,7 @@ import java.util.*;
 public class CFGGenerator {
     private static final Logger LOG = LoggerFactory.getLogger(CFGGenerator.class);
 
-    ClassInstrumentation classInstrumenter = new ClassInstrumentation();
+    ClassInstrumentation classInstrumenter = new ClassInstrumentation(CrashProperties.instrumentationBatchSize);
     protected Map<String,List<RawControlFlowGraph>> cfgs = new HashMap<>();
     protected List<FrameControlFlowGraph> frameCFGs =  new LinkedList<>();
     private BotsingRawControlFlowGraph rawInterProceduralGraph;
@@ -23,7 +23,15 @@ import static eu.stamp.botsing.commons.PostProcessUtility.*;
 import static eu.stamp.botsing.commons.SetupUtility.analyzeClassDependencies;
 import static eu.stamp.botsing.commons.SetupUtility.configureClassReInitializer;
 import eu.stamp.botsing.CrashProperties;
+import eu.stamp.botsing.commons.BotsingTestGenerationContext;
+import eu.stamp.botsing.commons.analysis.classpath.InheritanceTreeCache;
+import eu.stamp.botsing.commons.instrumentation.BytecodeCache;
 import eu.stamp.botsing.commons.instrumentation.ClassInstrumentation;
+import eu.stamp.botsing.commons.instrumentation.InstrumentationProfile;
+import eu.stamp.botsing.commons.testgeneration.TestGenerationContextUtility;
+import eu.stamp.botsing.ga.evaluation.EvaluationPool;
+import eu.stamp.botsing.ga.evaluation.FitnessCache;
+import eu.stamp.botsing.ga.evaluation.PrefixExecutionCache;
 import eu.stamp.botsing.graphs.cfg.CFGGenerator;
 import org.evosuite.Properties;
 import org.evosuite.coverage.TestFitnessFactory;
@@ -40,11 +48,15 @@ import org.evosuite.testsuite.TestSuiteChromosome;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Paths;
 import java.util.*;
 
 public class CrashReproduction {
     private static final Logger LOG = LoggerFactory.getLogger(CrashReproduction.class);
 
+    // Number of crash reproducing tests found by the last search
+    private static int reproducingTests = 0;
+
 
     public static List<TestGenerationResult> execute(){
         CrashProperties crashProperties = CrashProperties.getInstance();
@@ -80,30 +92,10 @@ public class CrashReproduction {
         //Initialize EvoSuite test executor
         TestCaseExecutor.initExecutor();
 
-        // In the first step initialize the target class
-        try{
-            // TODO: make a factroy for class(es) initialization
-            if(CrashProperties.integrationTesting){
-                CFGGenerator cfgGenerator = new CFGGenerator();
-                cfgGenerator.generateInterProceduralCFG();
-                analyzeClassDependencies(CrashProperties.getInstance().getStackTrace(0).getTargetClass());
-            }else{
-                initializeTargetClass(0);
-            }
-        }catch (Exception e){
-            LOG.error("Error in target initialization:");
-            e.printStackTrace();
-        }finally {
-            if (CrashProperties.getInstance().getBooleanValue("reset_static_fields")) {
-                configureClassReInitializer();
-            }
-            LoopCounter.getInstance().setActive(true);
-        }
-
         // For seeding we should initializing the pool here
 
 
-        if (!Properties.hasTargetClassBeenLoaded() && !CrashProperties.integrationTesting) {
+        if (!initializeTarget()) {
             // initialization failed, then build error message
             return TestGenerationResultBuilder.buildErrorResult("Could not load target class");
         }
@@ -111,6 +103,12 @@ public class CrashReproduction {
 
         TestGenerationStrategy strategy = CrashReproductionHelper.getTestGenerationFactory();
         TestSuiteChromosome testCases = strategy.generateTests();
+        reproducingTests = testCases.size();
+        EvaluationPool.getInstance().shutdown();
+        FitnessCache.getInstance().logStatistics();
+        PrefixExecutionCache.getInstance().logStatistics();
+        BytecodeCache.getInstance().logStatistics();
+        BotsingTestGenerationContext.getInstance().getClassLoaderForSUT().logStatistics();
 
         postProcessTests(testCases,getFitnessFactories(),true);
 
@@ -124,6 +122,51 @@ public class CrashReproduction {
 
     }
 
+    public static int getNumberOfReproducingTests(){
+        return reproducingTests;
+    }
+
+    /**
+     * Initializes the target class(es) of the first crash. This is also how the evaluation workers prepare their own
+     * JVM.
+     * @return false if the target class could not be loaded.
+     */
+    public static boolean initializeTarget(){
+        if(!CrashProperties.dependencyCacheDir.isEmpty()){
+            InheritanceTreeCache.getInstance().configure(Paths.get(CrashProperties.dependencyCacheDir));
+        }
+        // In the first step initialize the target class
+        try{
+            // TODO: make a factroy for class(es) initialization
+            if(CrashProperties.integrationTesting){
+                if(CrashProperties.selectiveInstrumentation){
+                    // The classes are instrumented when the inter-procedural CFG is generated
+                    InstrumentationProfile.getInstance().traceFrames(CrashProperties.getInstance().getStackTrace(0).getAllFrames());
+                    if(!CrashProperties.bytecodeCacheDir.isEmpty()){
+                        BytecodeCache.getInstance().configure(Paths.get(CrashProperties.bytecodeCacheDir), CrashProperties.bytecodeCacheSize * 1024L * 1024L);
+                    }
+                }
+                CFGGenerator cfgGenerator = new CFGGenerator();
+                cfgGenerator.generateInterProceduralCFG();
+                analyzeClassDependencies(CrashProperties.getInstance().getStackTrace(0).getTargetClass());
+            }else{
+                initializeTargetClass(0);
+            }
+        }catch (Exception e){
+            LOG.error("Error in target initialization:");
+            e.printStackTrace();
+        }finally {
+            if (CrashProperties.getInstance().getBooleanValue("reset_static_fields")) {
+                configureClassReInitializer();
+            }
+            LoopCounter.getInstance().setActive(true);
+        }
+        // The frames are looked up at every evaluation, so their methods are resolved once here
+        TestGenerationContextUtility.resolveMethodsOfFrames(CrashProperties.integrationTesting, CrashProperties.getInstance().getStackTrace(0).getFrames());
+
+        return Properties.hasTargetClassBeenLoaded() || CrashProperties.integrationTesting;
+    }
+
 //    private static void analyzeClassPaths() throws ClassNotFoundException{
 //        String cp = ClassPathHandler.getInstance().getTargetProjectClasspath();
 //        List<String> cpList = Arrays.asList(cp.split(File.pathSeparator));
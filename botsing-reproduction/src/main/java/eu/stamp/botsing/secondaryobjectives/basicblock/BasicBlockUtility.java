@@ -4,6 +4,7 @@ import eu.stamp.botsing.CrashProperties;
 import eu.stamp.botsing.StackTrace;
 import eu.stamp.botsing.commons.testgeneration.TestGenerationContextUtility;
 import eu.stamp.botsing.fitnessfunction.calculator.CrashCoverageFitnessCalculator;
+import eu.stamp.botsing.ga.evaluation.EvaluationPool;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.graphs.GraphPool;
 import org.evosuite.graphs.cfg.ActualControlFlowGraph;
@@ -132,7 +133,7 @@ public class BasicBlockUtility {
         Set<Integer> result = new HashSet<>();
         int lastLine = Integer.min(targetLine,targetBlock.getLastLine());
 
-        Set<Integer> coveredLines  = chromosome.getLastExecutionResult().getTrace().getCoveredLines(targetBlock.getClassName());
+        Set<Integer> coveredLines  = EvaluationPool.getExecutionResult(chromosome).getTrace().getCoveredLines(targetBlock.getClassName());
 
         for (Integer line: coveredLines){
             if (line >= targetBlock.getFirstLine() && line <= lastLine){
@@ -207,7 +208,7 @@ public class BasicBlockUtility {
         ActualControlFlowGraph targetMethodCFG = getTargetMethodCFG(targetClass,targetMethod);
 
         // find the covered lines in the target method by the given chromosome
-        Set<Integer> coveredLines  = chromosome.getLastExecutionResult().getTrace().getCoveredLines(targetClass);
+        Set<Integer> coveredLines  = EvaluationPool.getExecutionResult(chromosome).getTrace().getCoveredLines(targetClass);
 
         // check the basic blocks in the targetMethodCFG iteratively
         List<BasicBlock> visitedBasicBlocks = new ArrayList<>();
@@ -341,7 +342,7 @@ public class BasicBlockUtility {
         Checks if the line indicated by the given frameLevel is covered by the given chromosome
     */
     private  boolean isFrameCovered(CrashCoverageFitnessCalculator fitnessCalculator, int frameLevel, TestChromosome chromosome) {
-        if(fitnessCalculator.getLineCoverageForFrame(chromosome.getLastExecutionResult(),frameLevel) == 0){
+        if(fitnessCalculator.getLineCoverageForFrame(EvaluationPool.getExecutionResult(chromosome),frameLevel) == 0){
             return true;
         }
 
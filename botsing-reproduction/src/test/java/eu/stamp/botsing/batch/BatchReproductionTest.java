@@ -0,0 +1,98 @@
+package eu.stamp.botsing.batch;
+
+import eu.stamp.botsing.daemon.ForkedJobRunner;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchReproductionTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final String[] baseArgs = {"-project_cp", "cp.jar", "-target_frame", "2", "-Dtest_dir=tests"};
+
+    @Test
+    public void testCrashesOfADirectory() throws IOException {
+        folder.newFile("b.log");
+        folder.newFile("a.log");
+        folder.newFile("notes.txt");
+
+        List<BatchReproduction.Crash> crashes = BatchReproduction.readCrashes(folder.getRoot().toPath(), 3);
+        assertEquals(2, crashes.size());
+        assertEquals("a.log", crashes.get(0).getLogFile().getFileName().toString());
+        assertEquals("b.log", crashes.get(1).getLogFile().getFileName().toString());
+        assertEquals(3, crashes.get(0).getTargetFrame());
+        assertEquals(0, crashes.get(0).getSearchBudget());
+    }
+
+    @Test
+    public void testCrashesOfAManifest() throws IOException {
+        Path manifest = folder.newFile("crashes.txt").toPath();
+        Files.write(manifest, Arrays.asList("# crash, frame, budget", "logs/a.log", "", "logs/b.log 4 60"), StandardCharsets.UTF_8);
+
+        List<BatchReproduction.Crash> crashes = BatchReproduction.readCrashes(manifest, 1);
+        assertEquals(2, crashes.size());
+        assertEquals(folder.getRoot().toPath().resolve("logs/a.log"), crashes.get(0).getLogFile());
+        assertEquals(1, crashes.get(0).getTargetFrame());
+        assertEquals(4, crashes.get(1).getTargetFrame());
+        assertEquals(60, crashes.get(1).getSearchBudget());
+    }
+
+    @Test
+    public void testCommandLineOfACrash() {
+        Path cache = folder.getRoot().toPath();
+        BatchReproduction batch = new BatchReproduction(baseArgs, 2, cache, args -> null);
+        String[] args = batch.argsOf(new BatchReproduction.Crash(folder.getRoot().toPath().resolve("a.log"), 4, 60));
+
+        assertEquals(Arrays.asList("-project_cp", "cp.jar", "-Dtest_dir=tests",
+                "-crash_log", folder.getRoot().toPath().resolve("a.log").toString(), "-target_frame", "4",
+                "-Dtest_dir=" + batch.getTestDirectory().resolve("a-4"),
+                "-Dsearch_budget=60",
+                "-bytecode_cache_dir", cache.resolve("bytecode").toString(),
+                "-dependency_cache_dir", cache.resolve("dependencies").toString()), Arrays.asList(args));
+    }
+
+    @Test
+    public void testResultsKeepTheOrderOfTheCrashes() throws IOException {
+        BatchReproduction batch = new BatchReproduction(baseArgs, 3, folder.getRoot().toPath(), args -> {
+            String log = args[Arrays.asList(args).indexOf("-crash_log") + 1];
+            if (log.endsWith("error.log")) {
+                throw new IllegalStateException("Could not load target class");
+            }
+            if (log.endsWith("slow.log")) {
+                Thread.sleep(200);
+            }
+            return new ForkedJobRunner.Outcome(!log.endsWith("hard.log"), 42);
+        });
+        List<BatchReproduction.Crash> crashes = Arrays.asList(
+                new BatchReproduction.Crash(folder.getRoot().toPath().resolve("slow.log"), 1, 0),
+                new BatchReproduction.Crash(folder.getRoot().toPath().resolve("hard.log"), 1, 0),
+                new BatchReproduction.Crash(folder.getRoot().toPath().resolve("error.log"), 1, 0));
+
+        List<BatchReproduction.Result> results = batch.run(crashes);
+        assertEquals(BatchReproduction.Status.REPRODUCED, results.get(0).getStatus());
+        assertEquals(BatchReproduction.Status.NOT_REPRODUCED, results.get(1).getStatus());
+        assertEquals(BatchReproduction.Status.ERROR, results.get(2).getStatus());
+        assertEquals(42, results.get(0).getEvaluations());
+        assertTrue(results.get(0).getTime() >= 200);
+
+        Path index = folder.getRoot().toPath().resolve("out/results.csv");
+        BatchReproduction.writeResults(results, index);
+        List<String> lines = Files.readAllLines(index, StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertEquals("crash,target_frame,status,time_ms,evaluations", lines.get(0));
+        assertTrue(lines.get(2).startsWith(crashes.get(1).getLogFile() + ",1,NOT_REPRODUCED,"));
+        assertTrue(lines.get(3).endsWith(",0"));
+    }
+}
@@ -0,0 +1,105 @@
+package eu.stamp.botsing.daemon;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BotsingDaemonTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<List<String>> jobs = Collections.synchronizedList(new ArrayList<>());
+    private BotsingDaemon daemon;
+    private Thread server;
+
+    @Before
+    public void start() throws IOException {
+        daemon = new BotsingDaemon(0, folder.getRoot().toPath(), args -> {
+            jobs.add(Arrays.asList(args));
+            if (args[0].equals("-fail")) {
+                throw new IllegalStateException("failed job");
+            }
+            return !args[0].equals("-help");
+        });
+        server = new Thread(daemon::serve);
+        server.start();
+    }
+
+    @After
+    public void stop() throws InterruptedException {
+        daemon.shutdown();
+        server.join(10000);
+    }
+
+    private BotsingDaemonClient client() throws IOException {
+        return new BotsingDaemonClient(daemon.getPort(), BotsingDaemonClient.readToken(folder.getRoot().toPath(), daemon.getPort()));
+    }
+
+    @Test
+    public void testJobsAreRunWithTheCachesOfTheDaemon() throws IOException {
+        BotsingDaemonClient client = client();
+        assertEquals(BotsingDaemon.OK, client.submit(new String[]{"-crash_log", "crash.log", "-target_frame", "2"}));
+        assertEquals(BotsingDaemon.OK, client.submit(new String[]{"-crash_log", "crash.log", "-bytecode_cache_dir", "own"}));
+
+        assertEquals(2, jobs.size());
+        assertEquals(Arrays.asList("-crash_log", "crash.log", "-target_frame", "2",
+                "-bytecode_cache_dir", folder.getRoot().toPath().resolve("bytecode").toString(),
+                "-dependency_cache_dir", folder.getRoot().toPath().resolve("dependencies").toString()), jobs.get(0));
+        assertEquals(Arrays.asList("-crash_log", "crash.log", "-bytecode_cache_dir", "own",
+                "-dependency_cache_dir", folder.getRoot().toPath().resolve("dependencies").toString()), jobs.get(1));
+    }
+
+    @Test
+    public void testJobsWithoutResult() throws IOException {
+        BotsingDaemonClient client = client();
+        assertEquals(BotsingDaemon.FAILED, client.submit(new String[]{"-help"}));
+        assertTrue(client.submit(new String[]{"-fail"}).startsWith(BotsingDaemon.ERROR));
+        // The daemon still runs the next jobs
+        assertEquals(BotsingDaemon.OK, client.submit(new String[]{"-crash_log", "crash.log"}));
+    }
+
+    @Test
+    public void testShutdown() throws IOException, InterruptedException {
+        assertEquals(BotsingDaemon.OK, client().shutdown());
+        server.join(10000);
+        assertEquals(false, server.isAlive());
+    }
+
+    @Test
+    public void testRequestsWithoutTheTokenAreRejected() throws IOException {
+        BotsingDaemonClient intruder = new BotsingDaemonClient(daemon.getPort(), "0123456789abcdef");
+        assertEquals(BotsingDaemon.ERROR + " unauthorized", intruder.submit(new String[]{"-crash_log", "crash.log"}));
+        assertEquals(BotsingDaemon.ERROR + " unauthorized", intruder.shutdown());
+        assertTrue(jobs.isEmpty());
+        assertTrue(server.isAlive());
+    }
+
+    @Test
+    public void testTokenFileIsPrivate() throws IOException, InterruptedException {
+        Path tokenFile = BotsingDaemon.getTokenFile(folder.getRoot().toPath(), daemon.getPort());
+        if (tokenFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile)));
+        }
+        assertEquals(64, BotsingDaemonClient.readToken(folder.getRoot().toPath(), daemon.getPort()).length());
+
+        client().shutdown();
+        server.join(10000);
+        assertFalse(Files.exists(tokenFile));
+    }
+}
@@ -0,0 +1,48 @@
+package eu.stamp.botsing.daemon;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ForkedJobRunnerTest {
+
+    @Test
+    public void testOutcomeOfTheChildJvm() throws Exception {
+        ForkedJobRunner runner = new ForkedJobRunner(FakeJob.class.getName());
+
+        ForkedJobRunner.Outcome reproduced = runner.runJob(new String[]{"reproduce", "42"});
+        assertTrue(reproduced.isReproduced());
+        assertEquals(42, reproduced.getEvaluations());
+
+        ForkedJobRunner.Outcome notReproduced = runner.runJob(new String[]{"give_up", "7"});
+        assertFalse(notReproduced.isReproduced());
+        assertEquals(7, notReproduced.getEvaluations());
+
+        // The daemon only needs to know whether the crash is reproduced
+        assertTrue(runner.run(new String[]{"reproduce", "1"}));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailedChildJvm() throws Exception {
+        new ForkedJobRunner(FakeJob.class.getName()).runJob(new String[]{"crash", "0"});
+    }
+
+    /**
+     * Stands for the job in the child JVM.
+     */
+    public static class FakeJob {
+        @SuppressWarnings("checkstyle:systemexit")
+        public static void main(String[] args) throws IOException {
+            if (args[1].equals("crash")) {
+                System.exit(3);
+            }
+            ForkedJobRunner.writeOutcome(Paths.get(args[0]),
+                    new ForkedJobRunner.Outcome(args[1].equals("reproduce"), Long.parseLong(args[2])));
+        }
+    }
+}
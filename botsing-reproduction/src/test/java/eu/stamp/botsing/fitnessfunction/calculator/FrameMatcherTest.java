@@ -0,0 +1,87 @@
+package eu.stamp.botsing.fitnessfunction.calculator;
+
+import eu.stamp.botsing.StackTrace;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.StringReader;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class FrameMatcherTest {
+
+    private StackTrace target;
+    private CrashCoverageFitnessCalculator calculator;
+
+    @Before
+    public void setUp() throws FileNotFoundException {
+        BufferedReader obj = new BufferedReader(new StringReader("java.lang.IllegalArgumentException:\n" +
+                "\tat eu.stamp.ClassA$Inner.method2(ClassA.java:10)\n" +
+                "\tat sun.reflect.NativeMethodAccessorImpl.invoke0(NativeMethodAccessorImpl.java:62)\n" +
+                "\tat eu.stamp.ClassB.method1(ClassB.java:20)\n" +
+                "\tat eu.stamp.ClassC.method3(ClassC.java:30)"));
+        target = Mockito.spy(new StackTrace());
+        Mockito.doReturn(obj).when(target).readFromFile(anyString());
+        target.setup("", 4);
+        calculator = new CrashCoverageFitnessCalculator(target);
+    }
+
+    @Test
+    public void testSameDistanceAsFrameByFrameComparison() {
+        String[] classes = {"eu.stamp.ClassA$Inner", "eu.stamp.ClassA", "eu.stamp.ClassA$Other", "eu.stamp.ClassB",
+                "eu.stamp.ClassC", "eu.stamp.ClassD", "org.evosuite.runtime.System", "sun.reflect.NativeMethodAccessorImpl"};
+        String[] methods = {"method1", "method2", "method3", "invoke0", "other"};
+        Random random = new Random(7);
+        FrameMatcher matcher = new FrameMatcher(target);
+        for (int run = 0; run < 200; run++) {
+            StackTraceElement[] trace = new StackTraceElement[random.nextInt(8)];
+            for (int i = 0; i < trace.length; i++) {
+                trace[i] = new StackTraceElement(classes[random.nextInt(classes.length)],
+                        methods[random.nextInt(methods.length)], "File.java", 5 + random.nextInt(30));
+            }
+            assertEquals(frameByFrameDistance(trace), matcher.getDistance(trace), 0.0);
+        }
+    }
+
+    @Test
+    public void testSimilarity() {
+        StackTraceElement[] trace = {
+                new StackTraceElement("eu.stamp.ClassA$Inner", "method2", "ClassA", 10),
+                new StackTraceElement("org.evosuite.runtime.System", "exit", "System", 1),
+                new StackTraceElement("eu.stamp.ClassB", "method1", "ClassB", 20),
+                new StackTraceElement("eu.stamp.ClassC", "method3", "ClassC", 30)};
+        assertEquals(0.0, calculator.calculateFrameSimilarity(trace), 0.0);
+
+        trace[3] = new StackTraceElement("eu.stamp.ClassC", "method3", "ClassC", 31);
+        assertEquals(0.25, calculator.calculateFrameSimilarity(trace), 0.000001);
+    }
+
+    // The frame similarity computed with string comparisons, without its normalization
+    private double frameByFrameDistance(StackTraceElement[] trace) {
+        int startPoint = 0;
+        double result = 0.0;
+        for (int frameLevel = 1; frameLevel <= target.getNumberOfFrames(); frameLevel++) {
+            StackTraceElement selectedFrame = target.getFrame(frameLevel);
+            if (selectedFrame.getClassName().contains("reflect") || selectedFrame.getClassName().contains("invoke")) {
+                continue;
+            }
+            double minDistance = 1;
+            for (int pos = startPoint; pos < trace.length; pos++) {
+                if (!trace[pos].getClassName().contains("evosuite")) {
+                    double distance = calculator.getFrameDistance(selectedFrame, trace[pos]);
+                    if (distance < minDistance) {
+                        minDistance = distance;
+                        startPoint = pos;
+                    }
+                }
+            }
+            result += minDistance;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+package eu.stamp.botsing.fitnessfunction.calculator;
+
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTrace;
+import org.evosuite.testcase.execution.MethodCall;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class MethodCallIndexTest {
+
+    private final MethodCall call1 = new MethodCall("ClassA", "method1()V", 1, 0, 1);
+    private final MethodCall call2 = new MethodCall("ClassA", "method2()V", 2, 0, 2);
+    private final MethodCall call3 = new MethodCall("ClassA", "method1()V", 3, 0, 2);
+    private final MethodCall unfinished = new MethodCall("ClassA", "method1()V", 4, 0, 2);
+
+    private ExecutionTrace trace() {
+        ExecutionTrace trace = Mockito.mock(ExecutionTrace.class);
+        Mockito.when(trace.getMethodCalls()).thenReturn(Arrays.asList(call1, call2, call3));
+        Mockito.when(trace.getUnfinishedCalls()).thenReturn(Collections.singletonList(unfinished));
+        return trace;
+    }
+
+    @Test
+    public void testCallsByMethodAndDepth() {
+        MethodCallIndex index = new MethodCallIndex(trace());
+        assertEquals(Collections.singletonList(call1), index.getCalls("method1()V", 1));
+        assertEquals(Arrays.asList(call3, unfinished), index.getCalls("method1()V", 2));
+        assertEquals(Collections.singletonList(call2), index.getCalls("method2()V", 2));
+        assertTrue(index.getCalls("method2()V", 1).isEmpty());
+        assertTrue(index.getCalls("method3()V", 1).isEmpty());
+    }
+
+    @Test
+    public void testIndexIsBuiltOncePerExecution() {
+        ExecutionResult result = new ExecutionResult(new DefaultTestCase());
+        ExecutionTrace trace = trace();
+        result.setTrace(trace);
+
+        MethodCallIndex index = MethodCallIndex.of(result);
+        assertSame(index, MethodCallIndex.of(result));
+        verify(trace, times(1)).getMethodCalls();
+
+        // A new trace is indexed again
+        result.setTrace(trace());
+        assertNotSame(index, MethodCallIndex.of(result));
+    }
+}
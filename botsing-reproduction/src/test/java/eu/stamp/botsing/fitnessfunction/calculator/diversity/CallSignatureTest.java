@@ -0,0 +1,51 @@
+package eu.stamp.botsing.fitnessfunction.calculator.diversity;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CallSignatureTest {
+
+    @Test
+    public void testSetAndGet() {
+        CallSignature signature = new CallSignature(130);
+        signature.set(0);
+        signature.set(64);
+        signature.set(129);
+        assertTrue(signature.get(0));
+        assertTrue(signature.get(64));
+        assertTrue(signature.get(129));
+        assertFalse(signature.get(1));
+        assertFalse(signature.get(500));
+        assertEquals(3, signature.cardinality());
+    }
+
+    @Test
+    public void testHammingDistance() {
+        CallSignature first = new CallSignature(100);
+        CallSignature second = new CallSignature(100);
+        first.set(3);
+        first.set(70);
+        second.set(70);
+        second.set(99);
+        assertEquals(2, first.hammingDistance(second));
+        assertEquals(2, second.hammingDistance(first));
+        assertEquals(0, first.hammingDistance(first));
+    }
+
+    @Test
+    public void testDifferentLengths() {
+        // Signatures calculated before new callables were collected are shorter
+        CallSignature shorter = new CallSignature(10);
+        CallSignature longer = new CallSignature(200);
+        shorter.set(5);
+        longer.set(5);
+        assertEquals(0, shorter.hammingDistance(longer));
+        assertEquals(shorter, longer);
+        assertEquals(shorter.hashCode(), longer.hashCode());
+        longer.set(150);
+        assertEquals(1, longer.hammingDistance(shorter));
+    }
+}
@@ -0,0 +1,183 @@
+package eu.stamp.botsing.ga.evaluation;
+
+import eu.stamp.botsing.CrashProperties;
+import eu.stamp.botsing.fitnessfunction.WeightedSum;
+import eu.stamp.botsing.fitnessfunction.utils.CrashDistanceEvolution;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class EvaluationPoolTest {
+
+    private final List<ExecutorService> threads = new ArrayList<>();
+
+    @After
+    public void shutdown() {
+        for (ExecutorService thread : threads) {
+            thread.shutdownNow();
+        }
+    }
+
+    // Worker that gives the id of the test case as the value of the first fitness function, and fails on the given ids
+    private IsolatedWorker worker(List<Integer> failures) throws Exception {
+        ExecutorService thread = Executors.newSingleThreadExecutor();
+        threads.add(thread);
+        IsolatedWorker worker = mock(IsolatedWorker.class);
+        Mockito.when(worker.submit(any())).thenAnswer(invocation -> thread.submit((Callable<?>) invocation.getArgument(0)));
+        Mockito.when(worker.evaluate(any(), any())).thenAnswer(invocation -> {
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(invocation.getArgument(0)))) {
+                int id = ((TestCase) in.readObject()).getID();
+                if (failures.contains(id)) {
+                    throw new IllegalStateException("Test case " + id + " could not be executed");
+                }
+                int[] requested = invocation.getArgument(1);
+                double[] values = new double[requested.length];
+                Arrays.fill(values, id);
+                return values;
+            }
+        });
+        return worker;
+    }
+
+    private List<TestChromosome> chromosomes(int size) {
+        List<TestChromosome> chromosomes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            TestChromosome chromosome = new TestChromosome();
+            chromosome.setTestCase(new DefaultTestCase());
+            chromosomes.add(chromosome);
+        }
+        return chromosomes;
+    }
+
+    @Test
+    public void testConcurrentValuesAreMergedInTheOrderOfTheBatch() throws Exception {
+        FitnessFunction<TestChromosome> fitnessFunction = mock(FitnessFunction.class);
+        EvaluationPool pool = new EvaluationPool(Arrays.asList(worker(new ArrayList<>()), worker(new ArrayList<>())));
+        List<TestChromosome> chromosomes = chromosomes(10);
+
+        pool.evaluate(chromosomes, Arrays.asList(fitnessFunction));
+        for (TestChromosome chromosome : chromosomes) {
+            assertEquals(chromosome.getTestCase().getID(), chromosome.getFitness(fitnessFunction), 0.0);
+            // The execution result stays in the worker, it is computed again when it is needed
+            assertNull(chromosome.getLastExecutionResult());
+            assertTrue(chromosome.isChanged());
+        }
+        verify(fitnessFunction, never()).getFitness(any());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testConcurrentValuesAreReportedToTheCrashDistanceEvolution() throws Exception {
+        WeightedSum crashCoverage = mock(WeightedSum.class);
+        EvaluationPool pool = new EvaluationPool(Arrays.asList(worker(new ArrayList<>()), worker(new ArrayList<>())));
+        List<TestChromosome> chromosomes = chromosomes(4);
+        int evaluations = CrashDistanceEvolution.getInstance().getFitnessFunctionEvaluations();
+
+        pool.evaluate(chromosomes, Arrays.asList(crashCoverage));
+        assertEquals(evaluations + 4, CrashDistanceEvolution.getInstance().getFitnessFunctionEvaluations());
+        assertTrue(CrashDistanceEvolution.getInstance().getBestFitnessValue() <= chromosomes.get(0).getTestCase().getID());
+        for (TestChromosome chromosome : chromosomes) {
+            assertEquals(1, chromosome.getNumberOfEvaluations());
+        }
+        verify(crashCoverage, never()).getFitness(any());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testTestCasesThatAWorkerCannotEvaluateAreEvaluatedLocally() throws Exception {
+        FitnessFunction<TestChromosome> fitnessFunction = mock(FitnessFunction.class);
+        Mockito.when(fitnessFunction.getFitness(any())).thenReturn(-1.0);
+        List<TestChromosome> chromosomes = chromosomes(4);
+        int failing = chromosomes.get(2).getTestCase().getID();
+        EvaluationPool pool = new EvaluationPool(Arrays.asList(worker(Arrays.asList(failing)), worker(Arrays.asList(failing))));
+
+        pool.evaluate(chromosomes, Arrays.asList(fitnessFunction));
+        verify(fitnessFunction, times(1)).getFitness(any());
+        verify(fitnessFunction).getFitness(same(chromosomes.get(2)));
+        assertEquals(chromosomes.get(3).getTestCase().getID(), chromosomes.get(3).getFitness(fitnessFunction), 0.0);
+        pool.shutdown();
+    }
+
+    @Test
+    public void testTestCasesOfAFailedWorkerAreEvaluatedLocally() throws Exception {
+        FitnessFunction<TestChromosome> fitnessFunction = mock(FitnessFunction.class);
+        IsolatedWorker failed = mock(IsolatedWorker.class);
+        Mockito.when(failed.submit(any())).thenAnswer(invocation -> {
+            ExecutorService thread = Executors.newSingleThreadExecutor();
+            threads.add(thread);
+            return thread.submit(() -> {
+                throw new IllegalStateException("Worker stopped");
+            });
+        });
+        EvaluationPool pool = new EvaluationPool(Arrays.asList(failed));
+        List<TestChromosome> chromosomes = chromosomes(3);
+
+        pool.evaluate(chromosomes, Arrays.asList(fitnessFunction));
+        for (TestChromosome chromosome : chromosomes) {
+            verify(fitnessFunction).getFitness(same(chromosome));
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void testSolutionsAreExecutedAgainLocally() throws Exception {
+        FitnessFunction<TestChromosome> fitnessFunction = mock(FitnessFunction.class);
+        List<TestChromosome> chromosomes = chromosomes(2);
+        // A worker gives the value of the id of the test case, the first one covers the goal
+        DefaultTestCase covering = new DefaultTestCase() {
+            @Override
+            public int getID() {
+                return 0;
+            }
+        };
+        chromosomes.get(0).setTestCase(covering);
+        EvaluationPool pool = new EvaluationPool(Arrays.asList(worker(new ArrayList<>())));
+
+        pool.evaluate(chromosomes, Arrays.asList(fitnessFunction));
+        verify(fitnessFunction).getFitness(same(chromosomes.get(0)));
+        verify(fitnessFunction, never()).getFitness(same(chromosomes.get(1)));
+        pool.shutdown();
+    }
+
+    @Test
+    public void testSequentialEvaluation() {
+        CrashProperties.evaluationWorkers = 1;
+        FitnessFunction<TestChromosome> first = mock(FitnessFunction.class);
+        FitnessFunction<TestChromosome> second = mock(FitnessFunction.class);
+        List<FitnessFunction<TestChromosome>> fitnessFunctions = Arrays.asList(first, second);
+
+        List<TestChromosome> chromosomes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            chromosomes.add(mock(TestChromosome.class));
+        }
+
+        EvaluationPool.getInstance().evaluate(chromosomes, fitnessFunctions, fitnessFunction -> fitnessFunction == first);
+        for (TestChromosome chromosome : chromosomes) {
+            verify(first).getFitness(chromosome);
+            verify(second, never()).getFitness(chromosome);
+        }
+    }
+}
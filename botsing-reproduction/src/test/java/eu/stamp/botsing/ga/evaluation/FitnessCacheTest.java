@@ -0,0 +1,139 @@
+package eu.stamp.botsing.ga.evaluation;
+
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class FitnessCacheTest {
+
+    private FitnessFunction<TestChromosome> fitnessFunction;
+
+    @Before
+    public void init() {
+        fitnessFunction = mock(FitnessFunction.class);
+        Mockito.when(fitnessFunction.getFitness(any())).thenReturn(0.5);
+    }
+
+    private TestChromosome chromosome(String code) {
+        TestCase testCase = mock(TestCase.class);
+        Mockito.when(testCase.toCode()).thenReturn(code);
+        TestChromosome chromosome = mock(TestChromosome.class);
+        Mockito.when(chromosome.getTestCase()).thenReturn(testCase);
+        Mockito.when(chromosome.isChanged()).thenReturn(true);
+        // The execution result of the last evaluation
+        ExecutionResult result = executionResult();
+        Mockito.when(chromosome.getLastExecutionResult()).thenReturn(result);
+        return chromosome;
+    }
+
+    private ExecutionResult executionResult() {
+        ExecutionResult result = mock(ExecutionResult.class);
+        Mockito.when(result.clone()).thenAnswer(invocation -> executionResult());
+        return result;
+    }
+
+    @Test
+    public void testIdenticalTestCaseIsNotExecuted() {
+        FitnessCache cache = new FitnessCache(10);
+        TestChromosome first = chromosome("Foo foo0 = new Foo();");
+        TestChromosome identical = chromosome("Foo foo0 = new Foo();");
+
+        assertEquals(0.5, cache.getFitness(fitnessFunction, first), 0.0);
+        assertEquals(0.5, cache.getFitness(fitnessFunction, identical), 0.0);
+        verify(fitnessFunction, times(1)).getFitness(any());
+        verify(identical).setFitness(fitnessFunction, 0.5);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testCollidingTestCasesDoNotShareTheirValues() {
+        FitnessCache cache = new FitnessCache(10) {
+            @Override
+            long fingerprint(String code) {
+                return 42;
+            }
+        };
+        Mockito.when(fitnessFunction.getFitness(any())).thenReturn(0.5, 0.7, 0.7);
+
+        assertEquals(0.5, cache.getFitness(fitnessFunction, chromosome("Foo foo0 = new Foo();")), 0.0);
+        assertEquals(0.7, cache.getFitness(fitnessFunction, chromosome("Bar bar0 = new Bar();")), 0.0);
+        // The last evaluated test case replaced the first one
+        assertEquals(0.7, cache.getFitness(fitnessFunction, chromosome("Bar bar0 = new Bar();")), 0.0);
+        verify(fitnessFunction, times(2)).getFitness(any());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testCachedTestCaseGetsAnExecutionResult() {
+        FitnessCache cache = new FitnessCache(10);
+        cache.getFitness(fitnessFunction, chromosome("a"));
+        TestChromosome identical = chromosome("a");
+        cache.getFitness(fitnessFunction, identical);
+
+        ArgumentCaptor<ExecutionResult> result = ArgumentCaptor.forClass(ExecutionResult.class);
+        verify(identical).setLastExecutionResult(result.capture());
+        assertNotNull(result.getValue());
+        verify(result.getValue()).setTest(identical.getTestCase());
+        verify(identical).setChanged(false);
+    }
+
+    @Test
+    public void testTestCaseWithoutExecutionResultIsNotReused() {
+        FitnessCache cache = new FitnessCache(10);
+        TestChromosome first = chromosome("a");
+        Mockito.when(first.getLastExecutionResult()).thenReturn(null);
+        cache.getFitness(fitnessFunction, first);
+        cache.getFitness(fitnessFunction, chromosome("a"));
+        verify(fitnessFunction, times(2)).getFitness(any());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        FitnessCache cache = new FitnessCache(2);
+        cache.getFitness(fitnessFunction, chromosome("a"));
+        cache.getFitness(fitnessFunction, chromosome("b"));
+        // "a" becomes the most recently used test case
+        cache.getFitness(fitnessFunction, chromosome("a"));
+        cache.getFitness(fitnessFunction, chromosome("c"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+
+        cache.getFitness(fitnessFunction, chromosome("a"));
+        assertEquals(2, cache.getHits());
+        cache.getFitness(fitnessFunction, chromosome("b"));
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void testCoveringTestCaseIsExecuted() {
+        Mockito.when(fitnessFunction.getFitness(any())).thenReturn(0.0);
+        FitnessCache cache = new FitnessCache(10);
+        cache.getFitness(fitnessFunction, chromosome("a"));
+        cache.getFitness(fitnessFunction, chromosome("a"));
+        verify(fitnessFunction, times(2)).getFitness(any());
+    }
+
+    @Test
+    public void testDisabledCache() {
+        FitnessCache cache = new FitnessCache(0);
+        cache.getFitness(fitnessFunction, chromosome("a"));
+        cache.getFitness(fitnessFunction, chromosome("a"));
+        verify(fitnessFunction, times(2)).getFitness(any());
+        assertEquals(0, cache.size());
+    }
+}
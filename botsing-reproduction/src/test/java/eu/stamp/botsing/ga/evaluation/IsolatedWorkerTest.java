@@ -0,0 +1,85 @@
+package eu.stamp.botsing.ga.evaluation;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IsolatedWorkerTest {
+
+    private IsolatedWorker worker;
+
+    @After
+    public void shutdown() {
+        if (worker != null) {
+            worker.shutdown();
+        }
+    }
+
+    @Test
+    public void testValuesOfTheChildJvm() throws Exception {
+        worker = new IsolatedWorker(0, FakeWorker.class.getName());
+        worker.start(new String[]{"first", "second", "third"}).get();
+        assertEquals(3, worker.getNumberOfFitnessFunctions());
+
+        double[] values = worker.submit(() -> worker.evaluate(new byte[]{1, 2}, new int[]{0, 2})).get();
+        assertArrayEquals(new double[]{0.0, 4.0}, values, 0.0);
+        values = worker.submit(() -> worker.evaluate(new byte[]{1, 2, 3}, new int[]{1})).get();
+        assertArrayEquals(new double[]{3.0}, values, 0.0);
+    }
+
+    @Test
+    public void testErrorOfTheChildJvm() throws Exception {
+        worker = new IsolatedWorker(0, FakeWorker.class.getName());
+        worker.start(new String[]{"first"}).get();
+        try {
+            worker.submit(() -> worker.evaluate(new byte[0], new int[]{0})).get();
+            fail("The test case cannot be evaluated");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().getMessage().contains("empty test case"));
+        }
+
+        // The worker still serves the next test cases
+        assertArrayEquals(new double[]{0.0}, worker.submit(() -> worker.evaluate(new byte[]{1}, new int[]{0})).get(), 0.0);
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testFailedSetup() throws Exception {
+        worker = new IsolatedWorker(0, FakeWorker.class.getName());
+        worker.start(new String[0]).get();
+    }
+
+    /**
+     * Stands for the worker in the child JVM: it has a fitness function for each argument, whose value is the index of
+     * the fitness function times the length of the test case. What it prints does not reach the search.
+     */
+    public static class FakeWorker {
+        @SuppressWarnings("checkstyle:systemexit")
+        public static void main(String[] args) throws IOException {
+            FileOutputStream responses = new FileOutputStream(FileDescriptor.out);
+            System.setOut(System.err);
+            if (args.length == 0) {
+                System.exit(1);
+            }
+            IsolatedWorker.serve(args.length, (serializedTest, requested) -> {
+                System.out.println("Evaluating a test case");
+                if (serializedTest.length == 0) {
+                    throw new IllegalArgumentException("empty test case");
+                }
+                double[] values = new double[requested.length];
+                for (int index = 0; index < requested.length; index++) {
+                    values[index] = requested[index] * serializedTest.length;
+                }
+                return values;
+            }, System.in, responses);
+        }
+    }
+}
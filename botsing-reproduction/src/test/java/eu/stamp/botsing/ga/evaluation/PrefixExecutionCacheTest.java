@@ -0,0 +1,113 @@
+package eu.stamp.botsing.ga.evaluation;
+
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class PrefixExecutionCacheTest {
+
+    private FitnessFunction<TestChromosome> fitnessFunction;
+    // Position of the statement that throws in the executed test cases
+    private Integer exceptionPosition;
+
+    @Before
+    public void init() {
+        exceptionPosition = 1;
+        fitnessFunction = mock(FitnessFunction.class);
+        Mockito.when(fitnessFunction.getFitness(any())).thenAnswer(invocation -> {
+            TestChromosome chromosome = invocation.getArgument(0);
+            if (chromosome.isChanged() || chromosome.getLastExecutionResult() == null) {
+                chromosome.setLastExecutionResult(result(exceptionPosition));
+                chromosome.setChanged(false);
+            }
+            return 0.5;
+        });
+    }
+
+    private ExecutionResult result(Integer exceptionPosition) {
+        ExecutionResult result = mock(ExecutionResult.class);
+        Mockito.when(result.getFirstPositionOfThrownException()).thenReturn(exceptionPosition);
+        Mockito.when(result.clone()).thenAnswer(invocation -> result(exceptionPosition));
+        return result;
+    }
+
+    private TestChromosome chromosome(int... values) {
+        DefaultTestCase test = new DefaultTestCase();
+        for (int value : values) {
+            test.addStatement(new IntPrimitiveStatement(test, value));
+        }
+        TestChromosome chromosome = new TestChromosome();
+        chromosome.setTestCase(test);
+        return chromosome;
+    }
+
+    @Test
+    public void testDifferenceAfterTheExceptionIsNotExecuted() {
+        PrefixExecutionCache cache = new PrefixExecutionCache(10);
+        cache.getFitness(fitnessFunction, chromosome(1, 2, 3));
+        assertEquals(1, cache.size());
+
+        TestChromosome offspring = chromosome(1, 2, 4, 5);
+        assertEquals(0.5, cache.getFitness(fitnessFunction, offspring), 0.0);
+        assertNotNull(offspring.getLastExecutionResult());
+        assertFalse(offspring.isChanged());
+        verify(offspring.getLastExecutionResult()).setTest(offspring.getTestCase());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getSkippedStatements());
+    }
+
+    @Test
+    public void testDifferenceBeforeTheExceptionIsExecuted() {
+        PrefixExecutionCache cache = new PrefixExecutionCache(10);
+        cache.getFitness(fitnessFunction, chromosome(1, 2, 3));
+        cache.getFitness(fitnessFunction, chromosome(1, 7, 3));
+        cache.getFitness(fitnessFunction, chromosome(1));
+        assertEquals(0, cache.getHits());
+        verify(fitnessFunction, times(3)).getFitness(any());
+    }
+
+    @Test
+    public void testExecutionWithoutExceptionIsNotCached() {
+        exceptionPosition = null;
+        PrefixExecutionCache cache = new PrefixExecutionCache(10);
+        cache.getFitness(fitnessFunction, chromosome(1, 2, 3));
+        assertEquals(0, cache.size());
+        assertFalse(cache.reuse(chromosome(1, 2, 3)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        PrefixExecutionCache cache = new PrefixExecutionCache(2);
+        cache.getFitness(fitnessFunction, chromosome(1, 1));
+        cache.getFitness(fitnessFunction, chromosome(2, 2));
+        assertTrue(cache.reuse(chromosome(1, 1, 9)));
+        cache.getFitness(fitnessFunction, chromosome(3, 3));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.reuse(chromosome(1, 1)));
+        assertFalse(cache.reuse(chromosome(2, 2)));
+    }
+
+    @Test
+    public void testDisabledCache() {
+        PrefixExecutionCache cache = new PrefixExecutionCache(0);
+        cache.getFitness(fitnessFunction, chromosome(1, 2, 3));
+        cache.getFitness(fitnessFunction, chromosome(1, 2, 4));
+        verify(fitnessFunction, times(2)).getFitness(any());
+        assertEquals(0, cache.size());
+    }
+}
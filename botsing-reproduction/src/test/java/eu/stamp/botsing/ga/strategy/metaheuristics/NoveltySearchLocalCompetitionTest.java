@@ -0,0 +1,127 @@
+package eu.stamp.botsing.ga.strategy.metaheuristics;
+
+import eu.stamp.botsing.CrashProperties;
+import eu.stamp.botsing.StackTrace;
+import eu.stamp.botsing.commons.ga.strategy.operators.Mutation;
+import eu.stamp.botsing.fitnessfunction.testcase.factories.StackTraceChromosomeFactory;
+import org.evosuite.Properties;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.operators.crossover.CrossOverFunction;
+import org.evosuite.ga.operators.selection.SelectionFunction;
+import org.evosuite.ga.stoppingconditions.MaxGenerationStoppingCondition;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class NoveltySearchLocalCompetitionTest {
+
+    private double mutationRate;
+    private int population;
+
+    @Before
+    public void setUp() {
+        mutationRate = Properties.MUTATION_RATE;
+        population = Properties.POPULATION;
+        Properties.MUTATION_RATE = 1;
+        Properties.POPULATION = 4;
+        CrashProperties.evaluationWorkers = 2;
+    }
+
+    @After
+    public void tearDown() {
+        Properties.MUTATION_RATE = mutationRate;
+        Properties.POPULATION = population;
+        CrashProperties.evaluationWorkers = 1;
+    }
+
+    @Test
+    public void testOffspringAreExecutedOnceWithSeveralWorkers() {
+        StackTraceChromosomeFactory factory = mock(StackTraceChromosomeFactory.class);
+        Mockito.when(factory.getTargetTrace()).thenReturn(mock(StackTrace.class));
+        Mockito.when(factory.getChromosome()).thenAnswer(invocation -> {
+            TestChromosome chromosome = new TestChromosome();
+            chromosome.setTestCase(new DefaultTestCase());
+            return chromosome;
+        });
+
+        // Each offspring is changed by its mutation, and needs to be executed
+        List<TestChromosome> offspring = new ArrayList<>();
+        Mutation<TestChromosome> mutation = mock(Mutation.class);
+        doAnswer(invocation -> {
+            TestChromosome chromosome = invocation.getArgument(0);
+            chromosome.setChanged(true);
+            offspring.add(chromosome);
+            return null;
+        }).when(mutation).mutateOffspring(any());
+
+        // Counts the executions of each test case, as a crash coverage that runs it when it is changed
+        Map<TestChromosome, Integer> executions = new IdentityHashMap<>();
+        FitnessFunction<TestChromosome> crashCoverage = mock(FitnessFunction.class);
+        Mockito.when(crashCoverage.getFitness(any())).thenAnswer(invocation -> {
+            TestChromosome chromosome = invocation.getArgument(0);
+            executions.merge(chromosome, 1, Integer::sum);
+            chromosome.setChanged(false);
+            chromosome.setFitness(crashCoverage, 1.0);
+            return 1.0;
+        });
+
+        SelectionFunction<TestChromosome> selection = mock(SelectionFunction.class);
+        Mockito.when(selection.select(any())).thenAnswer(invocation -> ((List<TestChromosome>) invocation.getArgument(0)).get(0));
+
+        NoveltySearchLocalCompetition<TestChromosome> nslc = new FirstGeneration(factory, mock(CrossOverFunction.class), mutation);
+        nslc.setSelectionFunction(selection);
+        nslc.addFitnessFunction(crashCoverage);
+        MaxGenerationStoppingCondition stoppingCondition = new MaxGenerationStoppingCondition();
+        stoppingCondition.setLimit(2);
+        nslc.addStoppingCondition(stoppingCondition);
+
+        nslc.generateSolution();
+        assertEquals(4, offspring.size());
+        for (TestChromosome chromosome : offspring) {
+            assertEquals(1, (int) executions.get(chromosome));
+            assertFalse(chromosome.isChanged());
+        }
+    }
+
+    // Only evolves and merges the first generation, without the distances between its individuals
+    private static class FirstGeneration extends NoveltySearchLocalCompetition<TestChromosome> {
+
+        FirstGeneration(StackTraceChromosomeFactory factory, CrossOverFunction crossOverOperator, Mutation mutationOperator) {
+            super(factory, crossOverOperator, mutationOperator);
+        }
+
+        @Override
+        protected void calculateDistances() {
+        }
+
+        @Override
+        protected void updateNiche() {
+        }
+
+        @Override
+        protected void calculateLocalCompetition() {
+        }
+
+        @Override
+        protected void calculateNovelty() {
+        }
+
+        @Override
+        protected void updateArchive() {
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package eu.stamp.botsing.ga.strategy.metaheuristics.nslc;
+
+import eu.stamp.botsing.fitnessfunction.NoveltyFunction;
+import org.evosuite.testcase.TestChromosome;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+
+public class ArchiveSparsenessTest {
+
+    private DistanceMatrix<TestChromosome> distances;
+
+    @Before
+    public void init() {
+        List<TestChromosome> individuals = new ArrayList<>();
+        double[] positions = new double[30];
+        Random random = new Random(1);
+        for (int i = 0; i < positions.length; i++) {
+            individuals.add(mock(TestChromosome.class));
+            positions[i] = random.nextInt(100);
+        }
+        NoveltyFunction<TestChromosome> noveltyFunction = mock(NoveltyFunction.class);
+        Mockito.when(noveltyFunction.getDistance(any(), any())).thenAnswer(invocation ->
+                Math.abs(positions[individuals.indexOf(invocation.getArgument(0))] - positions[individuals.indexOf(invocation.getArgument(1))]));
+        distances = new DistanceMatrix<>(individuals, noveltyFunction, false);
+    }
+
+    private double density(List<Integer> archive, int position) {
+        double sum = 0.0;
+        for (int other : archive) {
+            sum += distances.getDistance(archive.get(position), other);
+        }
+        return sum / (archive.size() - 1);
+    }
+
+    private void assertSameAsRecalculation(ArchiveSparseness sparseness, List<Integer> archive) {
+        double maxDensity = 0.0;
+        for (int position = 0; position < archive.size(); position++) {
+            assertEquals(density(archive, position), sparseness.getDensity(position), 1e-9);
+            maxDensity = Math.max(maxDensity, density(archive, position));
+        }
+        assertEquals(maxDensity, sparseness.getMaxDensity(), 1e-9);
+    }
+
+    @Test
+    public void testAddAndReplace() {
+        ArchiveSparseness sparseness = new ArchiveSparseness(distances, 2);
+        List<Integer> archive = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            sparseness.add(i);
+            archive.add(i);
+        }
+        assertSameAsRecalculation(sparseness, archive);
+
+        sparseness.replace(3, 20);
+        archive.set(3, 20);
+        sparseness.replace(0, 25);
+        archive.set(0, 25);
+        assertSameAsRecalculation(sparseness, archive);
+        assertEquals(10, sparseness.size());
+        assertEquals(3, sparseness.indexOf(20));
+    }
+
+    @Test
+    public void testNoveltyAndNearest() {
+        ArchiveSparseness sparseness = new ArchiveSparseness(distances, 5);
+        assertEquals(-1, sparseness.nearest(0));
+        assertEquals(0.0, sparseness.getNovelty(0), 0.0);
+        double sum = 0.0;
+        int nearest = -1;
+        double minDistance = Double.MAX_VALUE;
+        for (int i = 1; i < 6; i++) {
+            sparseness.add(i);
+            sum += distances.getDistance(0, i);
+            if (distances.getDistance(0, i) < minDistance) {
+                minDistance = distances.getDistance(0, i);
+                nearest = i - 1;
+            }
+        }
+        assertEquals(sum / 5, sparseness.getNovelty(0), 1e-9);
+        assertEquals(nearest, sparseness.nearest(0));
+    }
+}
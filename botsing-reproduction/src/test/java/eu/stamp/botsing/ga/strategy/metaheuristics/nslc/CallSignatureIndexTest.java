@@ -0,0 +1,76 @@
+package eu.stamp.botsing.ga.strategy.metaheuristics.nslc;
+
+import eu.stamp.botsing.fitnessfunction.calculator.diversity.CallSignature;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class CallSignatureIndexTest {
+
+    private static final int NUMBER_OF_CALLABLES = 40;
+
+    private CallSignature[] signatures;
+    private CallSignatureIndex index;
+
+    @Before
+    public void init() {
+        Random random = new Random(1);
+        signatures = new CallSignature[150];
+        index = new CallSignatureIndex();
+        for (int i = 0; i < signatures.length; i++) {
+            signatures[i] = new CallSignature(NUMBER_OF_CALLABLES);
+            for (int callable = 0; callable < NUMBER_OF_CALLABLES; callable++) {
+                if (random.nextInt(4) == 0) {
+                    signatures[i].set(callable);
+                }
+            }
+            index.add(i, signatures[i]);
+        }
+    }
+
+    private int[] bruteForce(CallSignature query, int k, int excluded, boolean[] removed) {
+        double[] row = new double[signatures.length];
+        for (int i = 0; i < signatures.length; i++) {
+            row[i] = removed[i] ? Double.MAX_VALUE : query.hammingDistance(signatures[i]);
+        }
+        return new NearestNeighbours(k).select(row, excluded);
+    }
+
+    @Test
+    public void testKNearestSameAsLinearScan() {
+        boolean[] removed = new boolean[signatures.length];
+        for (int i = 0; i < signatures.length; i++) {
+            assertArrayEquals(bruteForce(signatures[i], 10, i, removed), index.kNearest(signatures[i], 10, i));
+        }
+    }
+
+    @Test
+    public void testNoNeighbours() {
+        assertArrayEquals(new int[0], index.kNearest(signatures[0], 0, 0));
+        assertArrayEquals(new int[0], index.kNearest(signatures[0], new NearestNeighbours(0), -1));
+    }
+
+    @Test
+    public void testNearestAfterRemoval() {
+        boolean[] removed = new boolean[signatures.length];
+        for (int i = 0; i < signatures.length; i += 3) {
+            index.remove(i);
+            removed[i] = true;
+        }
+        assertEquals(100, index.size());
+        for (int i = 1; i < signatures.length; i += 3) {
+            assertEquals(bruteForce(signatures[i], 1, i, removed)[0], index.nearest(signatures[i], i));
+        }
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        CallSignatureIndex empty = new CallSignatureIndex();
+        assertEquals(-1, empty.nearest(signatures[0], -1));
+        assertEquals(0, empty.kNearest(signatures[0], 3, -1).length);
+    }
+}
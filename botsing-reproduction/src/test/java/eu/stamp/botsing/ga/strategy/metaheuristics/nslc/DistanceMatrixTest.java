@@ -0,0 +1,82 @@
+package eu.stamp.botsing.ga.strategy.metaheuristics.nslc;
+
+import eu.stamp.botsing.fitnessfunction.NoveltyFunction;
+import org.evosuite.testcase.TestChromosome;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class DistanceMatrixTest {
+
+    private List<TestChromosome> individuals;
+    private NoveltyFunction<TestChromosome> noveltyFunction;
+
+    @Before
+    public void init() {
+        individuals = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            individuals.add(mock(TestChromosome.class));
+        }
+        noveltyFunction = mock(NoveltyFunction.class);
+        // The distance between two individuals is the difference of their positions
+        Mockito.when(noveltyFunction.getDistance(any(), any())).thenAnswer(invocation ->
+                (double) Math.abs(individuals.indexOf(invocation.getArgument(0)) - individuals.indexOf(invocation.getArgument(1))));
+    }
+
+    @Test
+    public void testSymmetricDistances() {
+        DistanceMatrix<TestChromosome> matrix = new DistanceMatrix<>(individuals, noveltyFunction, false);
+        assertEquals(5, matrix.size());
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                assertEquals(Math.abs(i - j), matrix.getDistance(i, j), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testEachPairCalculatedOnce() {
+        new DistanceMatrix<>(individuals, noveltyFunction, false);
+        verify(noveltyFunction, times(10)).getDistance(any(), any());
+    }
+
+    @Test
+    public void testParallelFill() {
+        DistanceMatrix<TestChromosome> sequential = new DistanceMatrix<>(individuals, noveltyFunction, false);
+        DistanceMatrix<TestChromosome> parallel = new DistanceMatrix<>(individuals, noveltyFunction, true);
+        double[] sequentialRow = new double[5];
+        double[] parallelRow = new double[5];
+        for (int i = 0; i < 5; i++) {
+            sequential.getRow(i, sequentialRow);
+            parallel.getRow(i, parallelRow);
+            for (int j = 0; j < 5; j++) {
+                assertEquals(sequentialRow[j], parallelRow[j], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testLazyFill() {
+        DistanceMatrix<TestChromosome> matrix = new DistanceMatrix<>(individuals, noveltyFunction);
+        verify(noveltyFunction, times(0)).getDistance(any(), any());
+        assertEquals(3.0, matrix.getDistance(1, 4), 0.0);
+        assertEquals(3.0, matrix.getDistance(4, 1), 0.0);
+        verify(noveltyFunction, times(1)).getDistance(any(), any());
+    }
+
+    @Test
+    public void testNovelty() {
+        DistanceMatrix<TestChromosome> matrix = new DistanceMatrix<>(individuals, noveltyFunction, false);
+        assertEquals(1.5, matrix.getNovelty(0, new int[]{1, 2, 4}, 2), 0.0);
+        assertEquals(0.0, matrix.getNovelty(0, new int[0], 0), 0.0);
+    }
+}
@@ -0,0 +1,50 @@
+package eu.stamp.botsing.ga.strategy.metaheuristics.nslc;
+
+import org.evosuite.testcase.TestChromosome;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class GenerationTest {
+
+    @Test
+    public void testIdenticalIndividualsHaveTheirOwnScores() {
+        TestChromosome individual = mock(TestChromosome.class);
+        Mockito.when(individual.getFitness()).thenReturn(0.5);
+        // The same test case appears both in the archive and in the offspring
+        Generation<TestChromosome> generation = new Generation<>(Arrays.asList(individual, individual));
+
+        generation.setNovelty(0, 1.0);
+        generation.setNovelty(1, 2.0);
+        generation.setLocalCompetition(1, 3);
+        generation.setNeighbours(0, new int[]{1});
+
+        assertEquals(2, generation.size());
+        assertSame(individual, generation.get(1));
+        assertArrayEquals(new double[]{1.0, 2.0}, generation.getNoveltyScores(), 0.0);
+        assertArrayEquals(new int[]{0, 3}, generation.getLocalCompetitions());
+        assertArrayEquals(new int[]{1}, generation.getNeighbours(0));
+    }
+
+    @Test
+    public void testFitnessIsReadOnce() {
+        TestChromosome individual = mock(TestChromosome.class);
+        Mockito.when(individual.getFitness()).thenReturn(0.5);
+        Generation<TestChromosome> generation = new Generation<>(Arrays.asList(individual));
+
+        assertEquals(0.5, generation.getFitness(0), 0.0);
+        assertEquals(0.5, generation.getFitness(0), 0.0);
+        verify(individual, times(1)).getFitness();
+
+        generation.setRanks(new int[]{2});
+        assertEquals(2, generation.getRank(0));
+    }
+}
@@ -0,0 +1,70 @@
+package eu.stamp.botsing.ga.strategy.metaheuristics.nslc;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NearestNeighboursTest {
+
+    @Test
+    public void testSelectSortedNeighbours() {
+        double[] row = {0.0, 5.0, 1.0, 3.0, 2.0};
+        NearestNeighbours nearestNeighbours = new NearestNeighbours(3);
+        assertArrayEquals(new int[]{2, 4, 3}, nearestNeighbours.select(row, 0));
+        // The buffers are reused by the next query
+        assertArrayEquals(new int[]{0, 2, 4}, nearestNeighbours.select(row, 3));
+    }
+
+    @Test
+    public void testTiesAreBrokenByIndex() {
+        double[] row = {1.0, 1.0, 0.0, 1.0, 1.0};
+        assertArrayEquals(new int[]{2, 0, 1}, new NearestNeighbours(3).select(row, 4));
+    }
+
+    @Test
+    public void testFewerCandidatesThanK() {
+        double[] row = {0.0, 2.0, 1.0};
+        assertArrayEquals(new int[]{2, 1}, new NearestNeighbours(5).select(row, 0));
+        assertEquals(0, new NearestNeighbours(0).select(row, 0).length);
+    }
+
+    @Test
+    public void testEmptyHeapIsNotFull() {
+        NearestNeighbours none = new NearestNeighbours(0);
+        none.offer(1.0, 0);
+        assertFalse(none.isFull());
+
+        NearestNeighbours one = new NearestNeighbours(1);
+        assertFalse(one.isFull());
+        one.offer(1.0, 0);
+        assertTrue(one.isFull());
+        assertEquals(1.0, one.farthestDistance(), 0.0);
+    }
+
+    @Test
+    public void testSameAsFullSort() {
+        Random random = new Random(1);
+        double[] row = new double[200];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = random.nextInt(20);
+        }
+        List<Integer> others = new ArrayList<>();
+        for (int i = 1; i < row.length; i++) {
+            others.add(i);
+        }
+        others.sort(Comparator.comparingDouble((Integer i) -> row[i]).thenComparingInt(i -> i));
+
+        int[] neighbours = new NearestNeighbours(100).select(row, 0);
+        for (int i = 0; i < neighbours.length; i++) {
+            assertEquals((int) others.get(i), neighbours[i]);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package eu.stamp.botsing.ga.strategy.metaheuristics.nslc;
+
+import eu.stamp.botsing.CrashProperties.NoveltyArchiveEviction;
+import eu.stamp.botsing.fitnessfunction.calculator.diversity.CallSignature;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NoveltyArchiveTest {
+
+    private CallSignature signature(int... ordinals) {
+        CallSignature signature = new CallSignature(64);
+        for (int ordinal : ordinals) {
+            signature.set(ordinal);
+        }
+        return signature;
+    }
+
+    @Test
+    public void testOldestEviction() {
+        NoveltyArchive archive = new NoveltyArchive(2, NoveltyArchiveEviction.OLDEST);
+        assertTrue(archive.add(signature(0), 1.0));
+        assertTrue(archive.add(signature(1), 1.0));
+        assertFalse(archive.add(signature(1), 1.0));
+        assertTrue(archive.add(signature(2), 1.0));
+
+        assertEquals(2, archive.size());
+        assertEquals(3, archive.getAdditions());
+        assertEquals(1, archive.getEvictions());
+        assertFalse(archive.contains(signature(0)));
+        assertTrue(archive.contains(signature(1)));
+        assertTrue(archive.contains(signature(2)));
+    }
+
+    @Test
+    public void testLeastNovelEviction() {
+        NoveltyArchive archive = new NoveltyArchive(2, NoveltyArchiveEviction.LEAST_NOVEL);
+        archive.add(signature(0), 3.0);
+        archive.add(signature(1), 1.0);
+        // Less novel than every stored behaviour
+        assertFalse(archive.add(signature(2), 0.5));
+        assertTrue(archive.add(signature(3), 2.0));
+
+        assertEquals(2, archive.getEvictions());
+        assertTrue(archive.contains(signature(0)));
+        assertFalse(archive.contains(signature(1)));
+        assertTrue(archive.contains(signature(3)));
+    }
+
+    @Test
+    public void testCrowdingEviction() {
+        NoveltyArchive archive = new NoveltyArchive(3, NoveltyArchiveEviction.CROWDING);
+        archive.add(signature(0, 1, 2, 3), 1.0);
+        archive.add(signature(0, 1, 2), 1.0);
+        archive.add(signature(10, 11, 12, 13, 14, 15), 1.0);
+        // {0, 1, 2} is the closest behaviour to the two others, so it leaves the crowded pair
+        assertTrue(archive.add(signature(20, 21, 22, 23, 24, 25, 26, 27), 1.0));
+        assertFalse(archive.contains(signature(0, 1, 2)));
+        assertTrue(archive.contains(signature(0, 1, 2, 3)));
+
+        // A behaviour closer to a stored one than any two stored behaviours is not stored
+        assertFalse(archive.add(signature(10, 11, 12, 13, 14), 1.0));
+        assertEquals(3, archive.size());
+        assertEquals(2, archive.getEvictions());
+    }
+
+    @Test
+    public void testBoundedSize() {
+        for (NoveltyArchiveEviction eviction : NoveltyArchiveEviction.values()) {
+            NoveltyArchive archive = new NoveltyArchive(10, eviction);
+            for (int i = 0; i < 64; i++) {
+                archive.add(signature(i, (i * 7) % 64), i);
+            }
+            assertEquals(10, archive.size());
+            assertTrue(archive.getEvictions() >= archive.getAdditions() - 10);
+        }
+    }
+
+    @Test
+    public void testNoveltyAgainstHistory() {
+        NoveltyArchive archive = new NoveltyArchive(5, NoveltyArchiveEviction.OLDEST);
+        CallSignature behaviour = signature(0);
+        // Distances sqrt(1) and sqrt(4) to the stored behaviours
+        archive.add(signature(0, 1), 1.0);
+        archive.add(signature(0, 1, 2, 3, 4), 1.0);
+
+        assertEquals((1.0 + 1.5) / 2, archive.getNovelty(behaviour, new double[]{1.5, 3.0}, 2), 1e-9);
+        assertEquals((1.0 + 1.5 + 2.0) / 3, archive.getNovelty(behaviour, new double[]{1.5, 3.0}, 3), 1e-9);
+
+        // The stored behaviour of the individual itself is not counted
+        archive.add(behaviour, 1.0);
+        assertEquals((1.0 + 1.5) / 2, archive.getNovelty(behaviour, new double[]{1.5, 3.0}, 2), 1e-9);
+    }
+
+    @Test
+    public void testDisabledArchive() {
+        NoveltyArchive archive = new NoveltyArchive(0, NoveltyArchiveEviction.RANDOM);
+        assertFalse(archive.isEnabled());
+        assertFalse(archive.add(signature(0), 1.0));
+        assertEquals(2.0, archive.getNovelty(signature(0), new double[]{1.0, 3.0}, 2), 0.0);
+    }
+}
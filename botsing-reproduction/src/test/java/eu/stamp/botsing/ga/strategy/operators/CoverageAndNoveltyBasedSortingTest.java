@@ -0,0 +1,94 @@
+package eu.stamp.botsing.ga.strategy.operators;
+
+import org.evosuite.testcase.TestChromosome;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CoverageAndNoveltyBasedSortingTest {
+
+    @Test
+    public void testRanks() {
+        double[] novelty = {3, 1, 2, 2, 0};
+        double[] localCompetition = {0, 3, 1, 1, 0};
+        // 0, 1 and 2/3 (equal) do not dominate each other, 4 is dominated by everyone
+        assertArrayEquals(new int[]{0, 0, 0, 0, 1}, CoverageAndNoveltyBasedSorting.nondominatedRanks(novelty, localCompetition));
+
+        novelty = new double[]{1, 2, 3};
+        localCompetition = new double[]{1, 2, 3};
+        assertArrayEquals(new int[]{2, 1, 0}, CoverageAndNoveltyBasedSorting.nondominatedRanks(novelty, localCompetition));
+    }
+
+    @Test
+    public void testSameRanksAsPairwiseComparison() {
+        Random random = new Random(42);
+        for (int run = 0; run < 50; run++) {
+            int size = 1 + random.nextInt(60);
+            double[] novelty = new double[size];
+            double[] localCompetition = new double[size];
+            for (int i = 0; i < size; i++) {
+                // Few distinct values to get many ties
+                novelty[i] = random.nextInt(8) / 2.0;
+                localCompetition[i] = random.nextInt(8);
+            }
+            assertArrayEquals(pairwiseRanks(novelty, localCompetition),
+                    CoverageAndNoveltyBasedSorting.nondominatedRanks(novelty, localCompetition));
+        }
+    }
+
+    @Test
+    public void testFronts() throws Exception {
+        TestChromosome worst = Mockito.mock(TestChromosome.class);
+        TestChromosome best = Mockito.mock(TestChromosome.class);
+        double[] novelty = {1.0, 2.0};
+        int[] localCompetition = {1, 2};
+
+        CoverageAndNoveltyBasedSorting<TestChromosome> sorting =
+                new CoverageAndNoveltyBasedSorting<>(Arrays.asList(worst, best), novelty, localCompetition);
+        sorting.nondominatedSort();
+        assertEquals(2, sorting.getNumberOfSubfronts());
+        List<TestChromosome> front0 = sorting.getSubfront(0);
+        assertEquals(1, front0.size());
+        assertTrue(front0.contains(best));
+        assertTrue(sorting.getSubfront(1).contains(worst));
+        assertArrayEquals(new int[]{1}, sorting.getSubfrontIndices(0));
+        assertArrayEquals(new int[]{1, 0}, sorting.getRanks());
+    }
+
+    // Peels the fronts one by one with pairwise dominance comparisons
+    private int[] pairwiseRanks(double[] novelty, double[] localCompetition) {
+        int size = novelty.length;
+        int[] ranks = new int[size];
+        boolean[] ranked = new boolean[size];
+        int numberOfRanked = 0;
+        for (int rank = 0; numberOfRanked < size; rank++) {
+            boolean[] inFront = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                if (ranked[i]) {
+                    continue;
+                }
+                boolean dominated = false;
+                for (int j = 0; j < size && !dominated; j++) {
+                    dominated = !ranked[j] && novelty[j] >= novelty[i] && localCompetition[j] >= localCompetition[i]
+                            && (novelty[j] > novelty[i] || localCompetition[j] > localCompetition[i]);
+                }
+                inFront[i] = !dominated;
+            }
+            for (int i = 0; i < size; i++) {
+                if (inFront[i]) {
+                    ranks[i] = rank;
+                    ranked[i] = true;
+                    numberOfRanked++;
+                }
+            }
+        }
+        return ranks;
+    }
+}